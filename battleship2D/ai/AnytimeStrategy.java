@@ -0,0 +1,71 @@
+package battleship2D.ai;
+
+import battleship2D.model.BoardModel;
+import battleship2D.model.CellType;
+
+/**
+ * Target search which improves its answer step by step, and may be stopped
+ * after any step: the best cell found so far is then the answer.
+ * A step is short compared to a move budget (at most a few milliseconds),
+ * so that the cost of a move is capped by its budget rather than by the board.
+ */
+public interface AnytimeStrategy {
+
+    /**
+     * Prepares a search: nothing is found yet
+     * @param observations - observation board, made of UNKNOWN, OCEAN, HIT and ship cells
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships (first elements of shipTypes and shipSizes)
+     */
+    void start(BoardModel observations, CellType[] shipTypes, int[] shipSizes, int shipCount);
+
+    /**
+     * Runs one more step of the search
+     * @param deadline - System.nanoTime() value after which the step should return early
+     * @return false if the answer cannot be improved any further
+     */
+    boolean improve(long deadline);
+
+    /**
+     * @return the best UNKNOWN cell found so far, -1 if none
+     */
+    int getBestCell();
+
+    /**
+     * Searches for a target within a wall-clock budget
+     * @see searchUntil()
+     * @param observations - observation board
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships
+     * @param milliseconds - budget of the search, 0 for no limit
+     * @return the best cell found, -1 if none
+     */
+    default int search(BoardModel observations, CellType[] shipTypes, int[] shipSizes, int shipCount,
+                       long milliseconds) {
+        long deadline = (milliseconds <= 0) ? Long.MAX_VALUE : System.nanoTime() + milliseconds * 1000000L;
+        return searchUntil(observations, shipTypes, shipSizes, shipCount, deadline);
+    }
+
+    /**
+     * Searches for a target until a deadline, e.g. the one of a whole move made of several searches.
+     * The first step always runs, so that a target is found whatever the deadline;
+     * no other step runs once the calling thread has been interrupted.
+     * @param observations - observation board
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships
+     * @param deadline - System.nanoTime() value after which no other step runs, Long.MAX_VALUE for no limit
+     * @return the best cell found, -1 if none
+     */
+    default int searchUntil(BoardModel observations, CellType[] shipTypes, int[] shipSizes, int shipCount,
+                            long deadline) {
+        start(observations, shipTypes, shipSizes, shipCount);
+        boolean improvable = improve(deadline);
+        while (improvable && System.nanoTime() < deadline && ! Thread.currentThread().isInterrupted()) {
+            improvable = improve(deadline);
+        }
+        return getBestCell();
+    }
+}
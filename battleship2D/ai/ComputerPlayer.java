@@ -0,0 +1,889 @@
+package battleship2D.ai;
+
+import battleship2D.model.BoardModel;
+import battleship2D.model.BoardSymmetry;
+import battleship2D.model.CellModel;
+import battleship2D.model.CellSpanIndex;
+import battleship2D.model.CellType;
+import battleship2D.model.Coord2D;
+import battleship2D.model.Direction;
+import battleship2D.model.Fleet;
+import battleship2D.model.FleetPlacer;
+import battleship2D.model.Ship;
+import battleship2D.model.SkillLevel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Computer side of the game: chooses the player cells targeted by its missiles,
+ * depending on its skill level, and remembers what it has learnt about the player board.
+ * This class does not depend on any user interface.
+ * Its public methods are synchronized, so that targets may be searched on another thread.
+ * A copy shares the search engines of the player it is made from: the searches of a player
+ * and of its copies must not overlap (e.g. they all run on the same thread).
+ * The searching levels (probability, Monte Carlo) are anytime strategies, stopped after
+ * the move budget: their cost per missile is capped whatever the board.
+ */
+public class ComputerPlayer {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Skill level for the computer */
+    private final SkillLevel skillLevel;
+
+    /** Fleet of the computer: the adverse fleet is assumed to be made of the same ships */
+    private final Fleet fleet;
+
+    /** Store moves played against the player */
+    private final BoardModel playerBoardModelCopy;
+
+    /** Store a copy the last targeted cell in the player board */
+    private CellModel lastCellTargeted;
+
+    /** Store a selection of cells for future targets 
+     * Each cell identifier is associated with an int representing its score for selection as the next actual target
+     */
+    private final IndexedMaxHeap futureTargets;
+
+    /** Store adverse ship information to improve the performance of future targets search 
+     * Each string represents the ship's name, associated with its size as an Integer.
+     * This HasMap is updated each time an adverse ship is destroyed.
+     */
+    private final HashMap<String, Integer> adverseShipInformation;
+
+    /** Spans of UNKNOWN cells in the player board copy, updated after each missile */
+    private final CellSpanIndex unknownSpans;
+
+    /** Reusable storage for the candidate cells of the medium skill level, shared with the copies */
+    private final int[] candidateCells;
+
+    /** Placement counting engine of the probability skill level, shared with the copies */
+    private final ProbabilityDensityEngine densityEngine;
+
+    /** Random fleet sampling engine of the Monte Carlo skill level, shared with the copies */
+    private final MonteCarloEngine monteCarloEngine;
+
+    /** Exact fleet counting engine of the exact skill level, shared with the copies */
+    private final ExactPlacementCounter exactCounter;
+
+    /** Exact search of the last missiles, from the expert level on, shared with the copies with its memo */
+    private final EndgameSolver endgameSolver;
+
+    /** Decisions of the deterministic strategies, possibly shared with other players, null if none */
+    private DecisionCache decisionCache;
+
+    /** Precomputed targets of the early states, null if none */
+    private OpeningBook openingBook;
+
+    /** Checkerboard hunt of the medium and expert levels */
+    private final ParityHunt parityHunt;
+
+    /** Random generator of the hunt mode */
+    private final Random generator;
+
+    /** Wall-clock budget of a move (ms), 0 for no limit */
+    private long moveBudget;
+
+    /** Random fleet layout, created with the first placement */
+    private FleetPlacer fleetPlacer;
+
+    /** Reusable storage for the types and sizes of the adverse ships not destroyed yet */
+    private final CellType[] remainingShipTypes;
+    private final int[] remainingShipSizes;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor, for boards of the default size
+     * @param skillLevel - skill level for the computer
+     * @param fleet - fleet of the computer
+     */
+    public ComputerPlayer(SkillLevel skillLevel, Fleet fleet) {
+        this(skillLevel, fleet, BoardModel.BOARD_SIZE, BoardModel.BOARD_SIZE);
+    }
+
+    /**
+     * Constructor
+     * @param skillLevel - skill level for the computer
+     * @param fleet - fleet of the computer
+     * @param rows - number of rows of the player board
+     * @param columns - number of columns of the player board
+     */
+    public ComputerPlayer(SkillLevel skillLevel, Fleet fleet, int rows, int columns) {
+        this.skillLevel = skillLevel;
+        this.fleet = fleet;
+        this.lastCellTargeted = null;
+        this.decisionCache = null;
+        this.openingBook = OpeningBook.getDefault();
+        this.moveBudget = skillLevel.getMoveBudget();
+
+        /* At first, every cell of the player board copy is unknown. */
+        this.playerBoardModelCopy = new BoardModel(CellType.UNKNOWN, rows, columns);
+        this.futureTargets = new IndexedMaxHeap(rows * columns);
+        this.unknownSpans = this.playerBoardModelCopy.trackSpans(CellType.UNKNOWN);
+        this.candidateCells = new int[rows * columns];
+        this.parityHunt = new ParityHunt(rows, columns);
+        this.generator = new Random();
+
+        this.adverseShipInformation = new HashMap<>();
+        initAdverseShipInformation();
+
+        int numberOfShips = this.fleet.numberOfShips();
+        this.densityEngine = new ProbabilityDensityEngine(rows, columns, numberOfShips);
+        this.monteCarloEngine = new MonteCarloEngine(rows, columns, numberOfShips);
+        this.exactCounter = new ExactPlacementCounter(rows, columns, numberOfShips);
+        this.endgameSolver = new EndgameSolver(rows, columns);
+        this.remainingShipTypes = new CellType[numberOfShips];
+        this.remainingShipSizes = new int[numberOfShips];
+    }
+
+    /**
+     * Copy constructor: only the observations are copied, the search engines are shared
+     * @param original - player to copy, whose lock is held
+     * @see copy()
+     */
+    private ComputerPlayer(ComputerPlayer original) {
+        this.skillLevel = original.skillLevel;
+        this.fleet = original.fleet;
+        this.decisionCache = original.decisionCache;
+        this.openingBook = original.openingBook;
+        this.moveBudget = original.moveBudget;
+        this.fleetPlacer = original.fleetPlacer;
+
+        int rows = original.playerBoardModelCopy.getRows();
+        int columns = original.playerBoardModelCopy.getColumns();
+        this.playerBoardModelCopy = new BoardModel(CellType.UNKNOWN, rows, columns);
+        for (int cellId = 0; cellId < rows * columns; cellId++) {
+            CellType cellType = original.playerBoardModelCopy.getCellModel(cellId).getCellType();
+            if (cellType != CellType.UNKNOWN) {
+                this.playerBoardModelCopy.getCellModel(cellId).setCellType(cellType);
+            }
+        }
+        this.lastCellTargeted = (original.lastCellTargeted != null)
+                ? this.playerBoardModelCopy.getCellModel(original.lastCellTargeted.getId()) : null;
+        this.futureTargets = new IndexedMaxHeap(rows * columns);
+        this.futureTargets.copyFrom(original.futureTargets);
+        this.unknownSpans = this.playerBoardModelCopy.trackSpans(CellType.UNKNOWN);
+        this.parityHunt = new ParityHunt(rows, columns);
+        this.parityHunt.copyFrom(original.parityHunt);
+        this.adverseShipInformation = new HashMap<>(original.adverseShipInformation);
+
+        this.candidateCells = original.candidateCells;
+        this.generator = original.generator;
+        this.densityEngine = original.densityEngine;
+        this.monteCarloEngine = original.monteCarloEngine;
+        this.exactCounter = original.exactCounter;
+        this.endgameSolver = original.endgameSolver;
+        this.remainingShipTypes = new CellType[original.remainingShipTypes.length];
+        this.remainingShipSizes = new int[original.remainingShipSizes.length];
+    }
+
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The method to find this cell depends on the computer skill level
+     * The move budget bounds the whole move: its stages (endgame, search, fallback) share a single deadline
+     * The opening book holds the first targets of the probability level (it is generated by its self-play);
+     * the Monte Carlo and exact levels deliberately borrow them, so that their first targets are
+     * probability moves: these levels are no better than placement density on an almost empty board,
+     * where the exact count gives up anyway and the sampling is the costliest.
+     * @return - thecell coordinates
+     */
+    public synchronized Coord2D findMissileDestinationCell() {
+        Coord2D coord2D = null;
+        long deadline = (this.moveBudget <= 0) ? Long.MAX_VALUE : System.nanoTime() + this.moveBudget * 1000000L;
+
+        /* The probability opening, also borrowed by the Monte Carlo and exact levels */
+        if (this.skillLevel == SkillLevel.PROBABILITY || this.skillLevel == SkillLevel.MONTE_CARLO
+                || this.skillLevel == SkillLevel.EXACT) {
+            coord2D = findMissileDestinationCellFromBook();
+            if (coord2D != null) {
+                return coord2D;
+            }
+        }
+
+        /* Once at most two ships remain, the upper levels play the exact endgame if it is small enough */
+        if (this.skillLevel != SkillLevel.BEGINNER && this.skillLevel != SkillLevel.MEDIUM
+                && this.adverseShipInformation.size() <= EndgameSolver.MAX_SHIPS) {
+            coord2D = findMissileDestinationCellEndgame(deadline);
+            if (coord2D != null) {
+                return coord2D;
+            }
+        }
+
+        switch (this.skillLevel) {
+            case BEGINNER:
+                coord2D = findMissileDestinationCellBeginner();
+                break;
+
+            case MEDIUM:
+                coord2D = findMissileDestinationCellMedium();
+                break;
+
+            case EXPERT:
+                coord2D = findMissileDestinationCellExpert();
+                break;
+
+            case PROBABILITY:
+                coord2D = findMissileDestinationCellProbability(deadline);
+                break;
+
+            case MONTE_CARLO:
+                coord2D = findMissileDestinationCellMonteCarlo(deadline);
+                break;
+
+            case EXACT:
+                coord2D = findMissileDestinationCellExact(deadline);
+                break;
+        }
+        return coord2D;
+    }
+
+    /**
+     * @return a copy of this player: what it knows about the player board, its future targets
+     * and its settings are copied, its search engines are shared. Decisions may then be explored
+     * on the copy, e.g. for an outcome of the last missile not known yet, without changing this player.
+     */
+    public synchronized ComputerPlayer copy() {
+        return new ComputerPlayer(this);
+    }
+
+    /**
+     * Forgets the endgame positions solved so far, so that the next endgame decision
+     * is searched from scratch (e.g. to measure it), by this player and by its copies
+     */
+    public synchronized void forgetSolvedEndgames() {
+        this.endgameSolver.clear();
+    }
+
+    /**
+     * Draws a target at random amongst the UNKNOWN cells, without changing what the computer knows.
+     * It may replace the target of a search which takes too long.
+     * @return the cell coordinates, null if every cell has been targeted
+     */
+    public synchronized Coord2D findFallbackDestinationCell() {
+        CellModel cellModel = this.playerBoardModelCopy.randomCell(CellType.UNKNOWN, Boolean.TRUE);
+        return (cellModel != null) ? this.playerBoardModelCopy.cellCoords(cellModel) : null;
+    }
+
+    /**
+     * @return the cell types of the adverse ships not destroyed yet, in fleet order
+     */
+    public synchronized CellType[] findRemainingShipTypes() {
+        int shipCount = collectRemainingShips();
+        CellType[] shipTypes = new CellType[shipCount];
+        System.arraycopy(this.remainingShipTypes, 0, shipTypes, 0, shipCount);
+        return shipTypes;
+    }
+
+    /**
+     * @return the key of the observations made so far, in their canonical form,
+     * as used by the decision cache and the opening book
+     * @see BoardModel#canonicalSymmetry()
+     */
+    public synchronized long canonicalStateKey() {
+        return canonicalStateKey(this.playerBoardModelCopy.canonicalSymmetry());
+    }
+
+    /**
+     * Automatically places a whole fleet of ships on a board,
+     * at random locations
+     * @param boardModel - board to fill, whose fleet gives the ships to place
+     * @return true if the fleet has been placed, false if it does not fit on the free cells
+     */
+    public synchronized Boolean placeShipsOnBoardAtRandom(BoardModel boardModel) {
+        /* The placer is kept as long as the boards to fill have the same size */
+        if (this.fleetPlacer == null || this.fleetPlacer.getRows() != boardModel.getRows()
+                || this.fleetPlacer.getColumns() != boardModel.getColumns()) {
+            this.fleetPlacer = new FleetPlacer(boardModel.getRows(), boardModel.getColumns(), new Random());
+        }
+        if (! this.fleetPlacer.placeFleet(boardModel)) {
+            System.err.println("ComputerPlayer::placeShipsOnBoardAtRandom: no layout of the fleet fits on the board");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The computer keeps a copy of the type of the targeted cell in the player board
+     * @param row - row of the player cell reached by the last missile
+     * @param column - column of the player cell reached by the last missile
+     * @param cellType - type of the cell before the missile reached it
+     * (OCEAN, or the type of the ship that has been hit)
+     */
+    public synchronized void recordShot(int row, int column, CellType cellType) {
+        this.lastCellTargeted = this.playerBoardModelCopy.getCellModel(row, column);
+        this.lastCellTargeted.setCellType(cellType);
+        this.parityHunt.markKnown(this.lastCellTargeted.getId());
+    }
+
+    /**
+     * Records the destruction of an adverse ship, whose cells are all known from now on
+     * @param ship - adverse ship which has just been destroyed
+     */
+    public synchronized void recordDestroyedShip(Ship ship) {
+        CellType cellType = CellType.shipTypeToCellType(ship.getShipType());
+        for (int cellId : ship.getCellIds()) {
+            this.playerBoardModelCopy.getCellModel(cellId).setCellType(cellType);
+            this.parityHunt.markKnown(cellId);
+        }
+        updateInfoAboutAdverseDestroyedShip(ship.getDescription());
+
+        /* The future targets surround hit cells: once every hit ship is destroyed, none of them is useful */
+        if (! isAnyAdverseShipWounded()) {
+            this.futureTargets.clear();
+        }
+    }
+
+    /**
+     * Sets the cache of the decisions made by the deterministic strategies (probability level)
+     * @param decisionCache - cache to use, possibly shared with other players; null to disable caching
+     */
+    public synchronized void setDecisionCache(DecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    /**
+     * Sets the opening book used by the probability level, and borrowed by the Monte Carlo and exact levels
+     * @param openingBook - book to use, null to always run the live strategy
+     */
+    public synchronized void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Sets the maximum number of random fleets drawn per missile, in the Monte Carlo skill level
+     * @param samples - number of random fleets
+     */
+    public synchronized void setMonteCarloSamples(int samples) {
+        this.monteCarloEngine.setSampleCount(samples);
+    }
+
+    /**
+     * Sets the wall-clock budget of a move, which replaces the default one of the skill level
+     * @param milliseconds - maximum time spent searching a target, 0 for no limit
+     * @see SkillLevel#getMoveBudget()
+     */
+    public synchronized void setMoveBudget(long milliseconds) {
+        this.moveBudget = milliseconds;
+    }
+
+    /**
+     * Each time an adverse (player) ship has been destroyed, the number
+     * of target ships decreases
+     * @param shipDescription - name of the last adverse destroyed ship
+     */
+    public synchronized void updateInfoAboutAdverseDestroyedShip(String shipDescription) {
+        if (this.adverseShipInformation.containsKey(shipDescription)) {
+            this.adverseShipInformation.remove(shipDescription);
+        }
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public synchronized CellModel getLastCellTargeted() {
+        return this.lastCellTargeted;
+    }
+
+    public synchronized long getMoveBudget() {
+        return this.moveBudget;
+    }
+
+    public BoardModel getPlayerBoardModelCopy() {
+        return this.playerBoardModelCopy;
+    }
+
+    public SkillLevel getSkillLevel() {
+        return this.skillLevel;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Create and fill a set of cells amongst which the next missile future target
+     * will be selected, in the medium skill level.
+     * A cell is inserted in the set if it is at the center of a span 
+     * (horizontal and/or vertical) of UNKNOWN cells
+     * @param size - size of the span
+     * @pre size > 1
+     * @return the number of cells stored in candidateCells
+     * @see findMissileDestinationCellMedium()
+     */
+    private int collectCandidatesForFutureTarget(int size) {
+        /* The spans are maintained by the copy board itself: no need to scan every cell */
+        return this.unknownSpans.collectSpanCenters(size, this.candidateCells);
+    }
+
+    /**
+     * @return the key of the observations made so far, seen through a symmetry
+     * @param symmetry - symmetry giving the canonical form of the observations
+     * @see canonicalStateKey()
+     */
+    private long canonicalStateKey(int symmetry) {
+        return DecisionCache.key(this.playerBoardModelCopy.getSymmetricHash(symmetry), remainingShipMask(),
+                                 SkillLevel.PROBABILITY.ordinal());
+    }
+
+    /**
+     * Fill a set with cells adjacent (along cardinal directions) to a specific cell
+     * @param cellModel - cell centering adjacent cells
+     * @return the set of adjacent cells
+     * @see findMissileDestinationCellExpert()
+     */
+    private ArrayList<CellModel> findAdjacentCells(CellModel cellModel) {
+        ArrayList<CellModel> adjacentCellsList = new ArrayList<CellModel>();
+        adjacentCellsList.add(this.playerBoardModelCopy.adjacentCell(cellModel, Direction.NORTH));
+        adjacentCellsList.add(this.playerBoardModelCopy.adjacentCell(cellModel, Direction.WEST));
+        adjacentCellsList.add(this.playerBoardModelCopy.adjacentCell(cellModel, Direction.SOUTH));
+        adjacentCellsList.add(this.playerBoardModelCopy.adjacentCell(cellModel, Direction.EAST));
+
+        return adjacentCellsList;
+    }
+
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The computation is done at beginner level: The computer only searches
+     * for a random location which has not already been visited
+     * 
+     * @return - the cell coordinates of the next cell to target
+     * @see findMissileDestinationCell()
+     */
+    private Coord2D findMissileDestinationCellBeginner() {
+        /* A non-visited cell is tagged as UNKNOWN */
+        CellModel cellModel = this.playerBoardModelCopy.randomCell(CellType.UNKNOWN, Boolean.TRUE);
+        if (cellModel != null) {
+            this.lastCellTargeted = cellModel; 
+            return this.playerBoardModelCopy.cellCoords(this.lastCellTargeted);
+        }
+        else {
+            System.err.println("ComputerPlayer::findMissileDestinationCellBeginner: cellModel = null");
+            return null;
+        }
+    }    
+    /*=========================================================================*/ 
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The computation is done exactly, for the last (at most two) adverse ships: every
+     * configuration of these ships consistent with the observations is enumerated, and
+     * the missile is sent to the cell minimizing the expected number of missiles left.
+     * @param deadline - System.nanoTime() value after which the move is over
+     * @return - the cell coordinates of the next cell to target, null if there are too many configurations
+     * @see findMissileDestinationCell()
+     */
+    private Coord2D findMissileDestinationCellEndgame(long deadline) {
+        int shipCount = collectRemainingShips();
+
+        int cellId = this.endgameSolver.findBestCell(this.playerBoardModelCopy, this.remainingShipTypes,
+                                                     this.remainingShipSizes, shipCount, remainingShipMask(),
+                                                     stageDeadline(deadline));
+        if (cellId < 0) {
+            return null;
+        }
+        this.lastCellTargeted = this.playerBoardModelCopy.getCellModel(cellId);
+        return this.playerBoardModelCopy.cellCoords(this.lastCellTargeted);
+    }
+
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The computation is done at expert level: once a ship has been hit,
+     * the next missile is targeted to an adjacent cell to increase the 
+     * odds to hit another part of a ship.
+     * @return - the cell coordinates  of the next cell to target
+     * @see findMissileDestinationCell()
+     */
+    private Coord2D findMissileDestinationCellExpert() {
+        /* lastCellTargeted gives no hint about a ship: back to the default method */
+        if (this.lastCellTargeted == null) {
+            return this.findMissileDestinationCellMedium();
+        }
+        
+        if (this.lastCellTargeted.getCellType() == CellType.OCEAN) {
+            return findMissileDestinationFromFutureTargets();                      
+        }
+        else { /* this.lastCellTargeted is a ship: update score of adjacent cells
+                to increase the odds to select one of them the next turn. */
+            
+            ArrayList<CellModel>adjacentCells = findAdjacentCells(this.lastCellTargeted);
+            
+            for (CellModel cellModel : adjacentCells) {
+                if (cellModel != null) {
+                    if (cellModel.getCellType() == CellType.UNKNOWN) {
+                        updateScoreOfFutureTarget(cellModel);
+                    }
+                    else if (cellModel.getCellType().isAShip() || cellModel.getCellType() == CellType.HIT){
+                        CellModel oppositeCellModel = findOppositeAdjacentCell(cellModel, adjacentCells);
+                        if (oppositeCellModel != null && oppositeCellModel.getCellType() == CellType.UNKNOWN) {
+                            updateScoreOfFutureTarget(oppositeCellModel);
+                        }
+                    }
+                }
+            }
+            return findMissileDestinationFromFutureTargets();
+        }
+    }
+
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The computation is done at medium level: this method searches for a zone 
+     * in the player board, in which the ship with the greatest size (>1) that has
+     * not been already destroyed, could lie.
+     * 
+     * The zones are read from the span index of the copy board, which is 
+     * updated incrementally (only the row and the column of the last targeted
+     * cell change after each missile launch).
+     * 
+     * @return - the cell coordinates of the next cell to target
+     * @see findMissileDestinationCell()
+     */
+    private Coord2D findMissileDestinationCellMedium() {
+        int largestSize = findSizeOfTheBiggestShipNotDestroyed();
+
+        /* If largestSize = 1, any UNKNOWN cell in the copy board can be elected
+            as the future target : the hunt mode gets a random position */
+        if (largestSize == 1) {
+            return findMissileDestinationCellHunt();
+        }
+        else {
+            int candidateCount = collectCandidatesForFutureTarget(largestSize);
+            if (candidateCount == 0) {
+                return findMissileDestinationCellHunt();
+            }
+            else { /* Choose a cell randomly */
+                Random generator = new Random();
+                int cellId = this.candidateCells[generator.nextInt(candidateCount)];
+                CellModel cellModel = this.playerBoardModelCopy.getCellModel(cellId);
+    
+                this.lastCellTargeted = cellModel; 
+                return this.playerBoardModelCopy.cellCoords(this.lastCellTargeted);
+            }
+        }
+    }
+
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The computation is done at exact level: every fleet made of the adverse ships
+     * not destroyed yet and consistent with the cells already targeted is counted,
+     * on every available core. The missile is sent to the UNKNOWN cell covered by
+     * the largest number of fleets, i.e. the most likely to contain a ship.
+     * While there are too many fleets to count within half of the time left for the move (early in a game),
+     * the choice is made at probability level.
+     * @param deadline - System.nanoTime() value after which the move is over
+     * @return - the cell coordinates of the next cell to target
+     * @see findMissileDestinationCell()
+     */
+    private Coord2D findMissileDestinationCellExact(long deadline) {
+        int shipCount = collectRemainingShips();
+
+        int cellId = this.exactCounter.searchUntil(this.playerBoardModelCopy, this.remainingShipTypes,
+                                                   this.remainingShipSizes, shipCount, stageDeadline(deadline));
+        if (cellId < 0) {
+            return findMissileDestinationCellProbability(deadline);
+        }
+        this.lastCellTargeted = this.playerBoardModelCopy.getCellModel(cellId);
+        return this.playerBoardModelCopy.cellCoords(this.lastCellTargeted);
+    }
+
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The computation is done in hunt mode, for the medium and expert levels: a random
+     * UNKNOWN cell is chosen amongst those whose (row + column) is a multiple of the
+     * length of the smallest adverse ship not destroyed yet, which is enough to find every ship
+     * @return - the cell coordinates of the next cell to target
+     * @see findMissileDestinationCellMedium()
+     */
+    private Coord2D findMissileDestinationCellHunt() {
+        int cellId = this.parityHunt.findCandidate(findSizeOfTheSmallestShipNotDestroyed(), this.generator);
+        if (cellId < 0) {
+            System.err.println("ComputerPlayer::findMissileDestinationCellHunt: no UNKNOWN cell left");
+            return null;
+        }
+        this.lastCellTargeted = this.playerBoardModelCopy.getCellModel(cellId);
+        return this.playerBoardModelCopy.cellCoords(this.lastCellTargeted);
+    }
+
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The computation is done at Monte Carlo level: many random fleets made of
+     * the adverse ships not destroyed yet are drawn, in accordance with the cells
+     * already targeted, on every available core, batch after batch until the move
+     * budget is spent. The missile is sent to the UNKNOWN cell covered by the largest number of fleets.
+     * @param deadline - System.nanoTime() value after which the move is over
+     * @return - the cell coordinates of the next cell to target
+     * @see findMissileDestinationCell()
+     */
+    private Coord2D findMissileDestinationCellMonteCarlo(long deadline) {
+        int shipCount = collectRemainingShips();
+        
+        int cellId = this.monteCarloEngine.searchUntil(this.playerBoardModelCopy, this.remainingShipTypes,
+                                                       this.remainingShipSizes, shipCount, deadline);
+        
+        /* No consistent fleet drawn in time: fall back to placement density */
+        if (cellId < 0) {
+            return findMissileDestinationCellProbability(deadline);
+        }
+        this.lastCellTargeted = this.playerBoardModelCopy.getCellModel(cellId);
+        return this.playerBoardModelCopy.cellCoords(this.lastCellTargeted);
+    }
+
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The computation is done at probability level: for every UNKNOWN cell, the
+     * legal placements of each adverse ship not destroyed yet that cover the cell
+     * are counted, with respect to the cells already targeted. The missile is
+     * sent to the cell the most likely to contain a ship.
+     * The ships are counted one after the other, until the move budget is spent.
+     * A complete choice only depends on the observations: it is cached, when a cache is set, for the
+     * canonical form of the observations, so that rotated or reflected states share their decision.
+     * @param deadline - System.nanoTime() value after which the move is over
+     * @return - the cell coordinates of the next cell to target
+     * @see findMissileDestinationCell()
+     */
+    private Coord2D findMissileDestinationCellProbability(long deadline) {
+        int rows = this.playerBoardModelCopy.getRows();
+        int columns = this.playerBoardModelCopy.getColumns();
+        int symmetry = BoardSymmetry.IDENTITY;
+        long key = 0;
+        if (this.decisionCache != null) {
+            symmetry = this.playerBoardModelCopy.canonicalSymmetry();
+            key = canonicalStateKey(symmetry);
+            int canonicalCellId = this.decisionCache.get(key);
+            if (canonicalCellId >= 0) {
+                int cellId = BoardSymmetry.transform(BoardSymmetry.inverse(symmetry), canonicalCellId, rows, columns);
+                CellModel cellModel = this.playerBoardModelCopy.getCellModel(cellId);
+
+                /* Guards against a key collision, as for the opening book */
+                if (cellModel != null && cellModel.getCellType() == CellType.UNKNOWN) {
+                    this.lastCellTargeted = cellModel;
+                    return this.playerBoardModelCopy.cellCoords(cellModel);
+                }
+            }
+        }
+        int shipCount = collectRemainingShips();
+        
+        int cellId = this.densityEngine.searchUntil(this.playerBoardModelCopy, this.remainingShipTypes,
+                                                    this.remainingShipSizes, shipCount, deadline);
+        if (cellId >= 0 && this.decisionCache != null && this.densityEngine.isComplete()) {
+            this.decisionCache.put(key, BoardSymmetry.transform(symmetry, cellId, rows, columns));
+        }
+        
+        /* No placement left (inconsistent observations): back to the default method */
+        if (cellId < 0) {
+            return findMissileDestinationCellBeginner();
+        }
+        this.lastCellTargeted = this.playerBoardModelCopy.getCellModel(cellId);
+        return this.playerBoardModelCopy.cellCoords(this.lastCellTargeted);
+    }
+
+    /**
+     * Computes the location of the player cell targeted by a missile
+     * The target is read from the opening book, as long as the observations are in the book:
+     * it is the one the probability level would choose
+     * @return - the cell coordinates of the next cell to target, null if out of the book
+     * @see findMissileDestinationCell()
+     */
+    private Coord2D findMissileDestinationCellFromBook() {
+        int rows = this.playerBoardModelCopy.getRows();
+        int columns = this.playerBoardModelCopy.getColumns();
+        if (this.openingBook == null || ! this.openingBook.appliesTo(rows, columns)) {
+            return null;
+        }
+        int symmetry = this.playerBoardModelCopy.canonicalSymmetry();
+        int canonicalCellId = this.openingBook.get(canonicalStateKey(symmetry));
+        if (canonicalCellId < 0) {
+            return null;
+        }
+        int cellId = BoardSymmetry.transform(BoardSymmetry.inverse(symmetry), canonicalCellId, rows, columns);
+        CellModel cellModel = this.playerBoardModelCopy.getCellModel(cellId);
+
+        /* Guards against a key collision */
+        if (cellModel == null || cellModel.getCellType() != CellType.UNKNOWN) {
+            return null;
+        }
+        this.lastCellTargeted = cellModel;
+        return this.playerBoardModelCopy.cellCoords(cellModel);
+    }
+
+    /**
+     * Shares the time left for a move between a stage and the search it falls back to
+     * @param deadline - System.nanoTime() value after which the move is over
+     * @return the deadline of the stage: half of the time left, so that the fallback has the other half
+     * @see findMissileDestinationCellEndgame()
+     * @see findMissileDestinationCellExact()
+     */
+    private static long stageDeadline(long deadline) {
+        if (deadline == Long.MAX_VALUE) {
+            return deadline;
+        }
+        long now = System.nanoTime();
+        return now + Math.max(0, deadline - now) / 2;
+    }
+
+    /** 
+     * Select the future missile target
+     * @return - the target cell coordinates 
+     * @see findMissileDestinationCellExpert()
+     */
+    private Coord2D findMissileDestinationFromFutureTargets() {
+        CellModel cellModel = selectAndRemoveFutureTarget();
+        
+        if (cellModel != null) {
+            this.lastCellTargeted = cellModel;
+            return this.playerBoardModelCopy.cellCoords(cellModel);
+        }
+        else {
+            return this.findMissileDestinationCellMedium();
+        }    
+    }
+
+    /**
+     * Fills remainingShipTypes and remainingShipSizes with the adverse ships 
+     * that have not been destroyed yet
+     * @return the number of remaining ships
+     * @see findMissileDestinationCellProbability()
+     * @see findMissileDestinationCellMonteCarlo()
+     * @see findMissileDestinationCellExact()
+     */
+    private int collectRemainingShips() {
+        int shipCount = 0;
+        for (Ship ship : this.fleet.getShips()) {
+            if (this.adverseShipInformation.containsKey(ship.getDescription())) {
+                this.remainingShipTypes[shipCount] = CellType.shipTypeToCellType(ship.getShipType());
+                this.remainingShipSizes[shipCount] = ship.getSize();
+                shipCount++;
+            }
+        }
+        return shipCount;
+    }
+
+    /**
+     * In order to increase the odds to find a cell belonging to the lat ship hit,
+     * the set adjacentCells of cells adjacent to the one representing the ship is provided,
+     * together with cellModel, which represents also a ship (cellModel is an element of adjacentCells).
+     * We search in adjacentCells if there is an UNKNOWN cell in the cardinal direction opposite to cellModel's
+     * If it exists, this cell will be a future target.
+     * @param cellModel - cell in a cardinal direction
+     * @pre cellModel is not null
+     * @param adjacentCells - set of cells adjacent to the current ship
+     * @return the element of adjacentCalls placed in the direction opposite to cellModel's     *
+     * @see findMissileDestinationCellExpert()
+     */
+    private CellModel findOppositeAdjacentCell(CellModel cellModel, ArrayList<CellModel> adjacentCells) {
+        CellModel oppositeCellModel = null;
+        
+        /* adjacentCells has exactly 4 elements (for directions NORTH (index 0), WEST (1), SOUTH (2), EAST (3)), some may be null. */
+        for (int i = 0; i < 4; i++) {
+            if (cellModel == adjacentCells.get(i)) {
+                oppositeCellModel = adjacentCells.get((i+2)%4);
+                break;
+            }
+        }
+        return oppositeCellModel;
+    }
+
+    /**
+     * Search for the size of the biggest adverse ship that has not been
+     * already destroyed
+     * @return the biggest size
+     * @see findMissileDestinationCellMedium()
+     */
+    private int findSizeOfTheBiggestShipNotDestroyed() {
+        /* adverseShipDescription contains the ships not destroyed only. */
+        Integer maxSize = -1;
+        for (String description : this.adverseShipInformation.keySet()) {
+            if (this.adverseShipInformation.get(description) > maxSize) {
+                maxSize = this.adverseShipInformation.get(description);
+            }
+        }
+        return maxSize;
+    }
+
+    /**
+     * Search for the size of the smallest adverse ship that has not been
+     * already destroyed: the modulus of the hunt mode shrinks with the fleet
+     * @return the smallest size, 1 if every ship has been destroyed
+     * @see findMissileDestinationCellHunt()
+     */
+    private int findSizeOfTheSmallestShipNotDestroyed() {
+        int minSize = Integer.MAX_VALUE;
+        for (Integer size : this.adverseShipInformation.values()) {
+            minSize = Math.min(minSize, size);
+        }
+        return (minSize == Integer.MAX_VALUE) ? 1 : minSize;
+    }
+
+    /**
+     * Initialize adverseShipInformation
+     * We assume that the adverse fleet is composed of the same ships as 
+     * the computer's fleet.
+     * @see ComputerPlayer()
+     */
+    private void initAdverseShipInformation() {
+        for (Ship ship  : this.fleet.getShips()) {
+            this.adverseShipInformation.put(ship.getDescription(),ship.getSize());
+        }
+    }
+
+    /**
+     * @return true if a ship not destroyed yet has been hit at least once
+     * @see recordDestroyedShip()
+     */
+    private boolean isAnyAdverseShipWounded() {
+        for (Ship ship : this.fleet.getShips()) {
+            CellType cellType = CellType.shipTypeToCellType(ship.getShipType());
+            if (this.adverseShipInformation.containsKey(ship.getDescription())
+                    && this.playerBoardModelCopy.isCellTypeInside(cellType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return one bit per adverse ship not destroyed yet, in fleet order
+     * @see findMissileDestinationCellProbability()
+     */
+    private long remainingShipMask() {
+        long mask = 0;
+        ArrayList<Ship> ships = this.fleet.getShips();
+        for (int i = 0; i < ships.size(); i++) {
+            if (this.adverseShipInformation.containsKey(ships.get(i).getDescription())) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @return the CellModel associated with the best score, null if there is no CellModel available
+     * If not null, the selectedCellModel is removed from the set of future targets
+     * @see findMissileDestinationFromFutureTargets()
+     */
+    private CellModel selectAndRemoveFutureTarget() {
+        while (! this.futureTargets.isEmpty()) {
+            CellModel cellModel = this.playerBoardModelCopy.getCellModel(this.futureTargets.extractMax());
+            
+            /* A future target may have been reached meanwhile by another strategy */
+            if (cellModel.getCellType() == CellType.UNKNOWN) {
+                return cellModel;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add a CellModel as a future target or increases it score if it is already a future target     * 
+     * @see findMissileDestinationCellExpert()
+     */
+    private void updateScoreOfFutureTarget(CellModel cellModel) {
+        this.futureTargets.increaseKey(cellModel.getId(), 1);
+    }
+}
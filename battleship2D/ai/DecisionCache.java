@@ -0,0 +1,113 @@
+package battleship2D.ai;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the targets chosen by the deterministic strategies, keyed by
+ * the Zobrist hash of the observation board and the set of adverse ships remaining.
+ * The least recently used decision is evicted once the capacity is reached.
+ * A cache may be shared by several computer players, e.g. the games of a tournament worker;
+ * it is thread-safe, but sharing it between threads makes them contend for its lock.
+ */
+public class DecisionCache {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Maximum number of decisions kept */
+    private final int capacity;
+
+    /** Chosen cell identifiers, in access order */
+    private final LinkedHashMap<Long, Integer> decisions;
+
+    /** Number of lookups, and of lookups which have found a decision */
+    private long lookups, hits;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param capacity - maximum number of decisions kept
+     */
+    public DecisionCache(int capacity) {
+        this.capacity = capacity;
+        this.decisions = new LinkedHashMap<Long, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                return size() > DecisionCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the key of an observation state
+     * @param boardHash - Zobrist hash of the observation board
+     * @param remainingShips - one bit per adverse ship not destroyed yet, in fleet order
+     * @param strategy - identifier of the strategy (e.g. a skill level ordinal)
+     */
+    public static long key(long boardHash, long remainingShips, int strategy) {
+        long mixed = (remainingShips << 8 | strategy) * 0x9E3779B97F4A7C15L;
+        return boardHash ^ (mixed ^ (mixed >>> 29));
+    }
+
+    /**
+     * Empties the cache and its statistics
+     */
+    public synchronized void clear() {
+        this.decisions.clear();
+        this.lookups = 0;
+        this.hits = 0;
+    }
+
+    /**
+     * @return the cell chosen for a state, -1 if the state is not known
+     * @param key - state key
+     * @see key()
+     */
+    public synchronized int get(long key) {
+        this.lookups++;
+        Integer cellId = this.decisions.get(key);
+        if (cellId == null) {
+            return -1;
+        }
+        this.hits++;
+        return cellId;
+    }
+
+    /**
+     * Records the cell chosen for a state
+     * @param key - state key
+     * @param cellId - chosen cell identifier
+     * @see key()
+     */
+    public synchronized void put(long key, int cellId) {
+        this.decisions.put(key, cellId);
+    }
+
+    /**
+     * @return the number of decisions kept
+     */
+    public synchronized int size() {
+        return this.decisions.size();
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getLookups() {
+        return this.lookups;
+    }
+}
@@ -0,0 +1,36 @@
+package battleship2D.ai;
+
+/**
+ * Adds the coverage of a ship to a placement count array, from its legal start array:
+ * counts[i] += starts[i - k * stride] for every k in [0, size[
+ * This is where placement counting spends nearly all its time. The implementation is
+ * selected once, at startup: the Vector API one when it has been compiled (it lives in
+ * the separate vector/ source root) and the jdk.incubator.vector module is enabled
+ * (java --add-modules jdk.incubator.vector), the scalar one otherwise.
+ */
+public interface DensityAccumulator {
+
+    /** Class of the Vector API implementation, loaded by reflection so that the module stays optional */
+    String VECTOR_IMPLEMENTATION = "battleship2D.ai.VectorDensityAccumulator";
+
+    /**
+     * Adds shifted copies of a legal start array to a count array
+     * @param starts - legal start array (1 if a placement starts on the cell, 0 otherwise)
+     * @param stride - distance between two consecutive cells of a placement
+     * @param size - ship size
+     * @param counts - count array to update, as long as starts
+     */
+    void accumulate(int[] starts, int stride, int size, int[] counts);
+
+    /**
+     * @return the fastest implementation available on this JVM
+     */
+    static DensityAccumulator select() {
+        try {
+            return (DensityAccumulator) Class.forName(VECTOR_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | LinkageError | RuntimeException ex) {
+            return new ScalarDensityAccumulator();
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package battleship2D.ai;
+
+import battleship2D.model.BoardModel;
+import battleship2D.model.CellType;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Exact play of the end of a game, once at most two adverse ships remain.
+ * Every configuration of the remaining ships consistent with the observations is
+ * enumerated (placements are bitsets: bit i stands for cell i, so that crossing a
+ * known cell, overlapping the other ship or leaving a HIT cell uncovered are all
+ * tested a word at a time). All the configurations being equally likely, the target
+ * is the cell minimizing the expected number of missiles needed to destroy every
+ * remaining ship, found by a search over the outcomes of the next missiles.
+ * Since hitting a ship reveals its type and destroying it is announced, the outcome
+ * of a missile is either the ocean, a hit on one of the ships, or its destruction.
+ * Solved states are memoized on a Zobrist hash of what matters in the observations:
+ * the configurations still possible and the cells of theirs already hit. It does not
+ * depend on the order of the missiles, nor on the missiles fallen elsewhere, so that
+ * the next missiles of the same endgame are usually answered at once.
+ * The search gives up (and the caller falls back to its own method) when there are
+ * too many configurations, or when its node budget or its deadline is exceeded.
+ */
+public class EndgameSolver {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Maximum number of remaining ships dealt with */
+    public static final int MAX_SHIPS = 2;
+
+    /** Maximum number of configurations for an exact search: the search tree grows exponentially beyond */
+    private static final int MAX_CONFIGURATIONS = 12;
+
+    /** Maximum number of states expanded per search */
+    private static final int MAX_NODES = 20000;
+
+    /** Maximum number of memoized states, the memo is emptied beyond */
+    private static final int MAX_SOLUTIONS = 1 << 17;
+
+    /** Strategy identifier in the memo keys */
+    private static final int STRATEGY = 0x5E;
+
+    /** Number of bits stored in a bitset word */
+    private static final int WORD_SIZE = 64;
+
+    /** Ordinals used to encode observations */
+    private static final int UNKNOWN = CellType.UNKNOWN.ordinal();
+    private static final int HIT = CellType.HIT.ordinal();
+
+    /** Board dimensions */
+    private final int rows, columns, cells;
+
+    /** Number of words in each bitset */
+    private final int words;
+
+    /** Observed type of each cell, as a CellType ordinal */
+    private final byte[] observations;
+
+    /** Solved states, by key */
+    private final HashMap<Long, Solution> solutions;
+
+    /** Types of the remaining ships of the current search, and their bits in the fleet order */
+    private final CellType[] shipTypes;
+    private final long[] shipBits;
+
+    /** Legal placements of each remaining ship, as bitsets, and their Zobrist keys */
+    private final long[][][] placements;
+    private final long[][] placementKeys;
+    private final int[] placementCounts;
+
+    /** Placement of each ship in each configuration of the current search, and their Zobrist keys */
+    private int[][] configurations;
+    private long[] configurationKeys;
+
+    /** Number of states expanded, and deadline (System.nanoTime()) of the current search */
+    private int nodes;
+    private long deadline;
+
+    /** True once the current search has given up */
+    private boolean aborted;
+
+    /** Number of configurations of the last search which has given up, and its remaining ships */
+    private int abortedConfigurations;
+    private long abortedShips;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public EndgameSolver(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = rows * columns;
+        this.words = (this.cells + WORD_SIZE - 1) / WORD_SIZE;
+        this.observations = new byte[this.cells];
+        this.solutions = new HashMap<>();
+        this.shipTypes = new CellType[MAX_SHIPS];
+        this.shipBits = new long[MAX_SHIPS];
+        this.placements = new long[MAX_SHIPS][2 * this.cells][];
+        this.placementKeys = new long[MAX_SHIPS][2 * this.cells];
+        this.placementCounts = new int[MAX_SHIPS];
+        this.abortedConfigurations = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Searches for the target minimizing the expected number of missiles left
+     * @param boardModel - observation board, made of UNKNOWN, OCEAN, HIT and ship cells
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships
+     * @param remainingShips - one bit per remaining ship, in fleet order (the order of shipTypes)
+     * @param deadline - System.nanoTime() value after which the search gives up
+     * @return the best cell identifier, -1 if the search has given up
+     */
+    public int findBestCell(BoardModel boardModel, CellType[] shipTypes, int[] shipSizes, int shipCount,
+                            long remainingShips, long deadline) {
+        if (shipCount == 0 || shipCount > MAX_SHIPS || boardModel.getRows() != this.rows
+                || boardModel.getColumns() != this.columns) {
+            return -1;
+        }
+        long[] shot = new long[this.words];
+        for (int cellId = 0; cellId < this.cells; cellId++) {
+            this.observations[cellId] = (byte) boardModel.getCellModel(cellId).getCellType().ordinal();
+            if (this.observations[cellId] != UNKNOWN) {
+                shot[cellId / WORD_SIZE] |= 1L << cellId;
+            }
+        }
+        long bits = remainingShips;
+        for (int ship = 0; ship < shipCount; ship++) {
+            this.shipTypes[ship] = shipTypes[ship];
+            this.shipBits[ship] = Long.lowestOneBit(bits);
+            bits &= bits - 1;
+            collectPlacements(ship, shipTypes[ship].ordinal(), shipSizes[ship]);
+        }
+        int configurationCount = collectConfigurations(shipCount);
+        if (configurationCount == 0 || configurationCount > MAX_CONFIGURATIONS) {
+            return -1;
+        }
+        /* A search which has given up is only tried again once the endgame has shrunk */
+        if (remainingShips == this.abortedShips && configurationCount >= this.abortedConfigurations) {
+            return -1;
+        }
+
+        int[] all = new int[configurationCount];
+        for (int i = 0; i < configurationCount; i++) {
+            all[i] = i;
+        }
+        int alive = (1 << shipCount) - 1;
+        Solution solution = this.solutions.get(stateKey(all, configurationCount, shot, alive));
+        if (solution != null) {
+            return solution.bestCell;
+        }
+
+        if (this.solutions.size() > MAX_SOLUTIONS) {
+            this.solutions.clear();
+        }
+        this.nodes = 0;
+        this.deadline = deadline;
+        this.aborted = false;
+        solve(all, configurationCount, shot, alive);
+        if (this.aborted) {
+            /* An interrupted search says nothing about the size of the endgame */
+            if (! Thread.currentThread().isInterrupted()) {
+                this.abortedConfigurations = configurationCount;
+                this.abortedShips = remainingShips;
+            }
+            return -1;
+        }
+        return this.solutions.get(stateKey(all, configurationCount, shot, alive)).bestCell;
+    }
+
+    /**
+     * Forgets every solved state
+     */
+    public void clear() {
+        this.solutions.clear();
+        this.abortedConfigurations = Integer.MAX_VALUE;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Lists the configurations of the remaining ships: placements which do not overlap
+     * and which cover every cell observed as HIT
+     * @param shipCount - number of remaining ships
+     * @return the number of configurations, MAX_CONFIGURATIONS + 1 if there are more
+     * @see findBestCell()
+     */
+    private int collectConfigurations(int shipCount) {
+        long[] hitCells = new long[this.words];
+        for (int cellId = 0; cellId < this.cells; cellId++) {
+            if (this.observations[cellId] == HIT) {
+                hitCells[cellId / WORD_SIZE] |= 1L << cellId;
+            }
+        }
+
+        this.configurations = new int[MAX_CONFIGURATIONS][shipCount];
+        this.configurationKeys = new long[MAX_CONFIGURATIONS];
+        int count = 0;
+        for (int first = 0; first < this.placementCounts[0]; first++) {
+            long[] firstCells = this.placements[0][first];
+            int second = (shipCount > 1) ? 0 : -1;
+            int secondEnd = (shipCount > 1) ? this.placementCounts[1] : 0;
+            for (; second < secondEnd; second++) {
+                long[] secondCells = (second >= 0) ? this.placements[1][second] : null;
+                boolean legal = true;
+                for (int i = 0; i < this.words && legal; i++) {
+                    long covered = firstCells[i] | ((secondCells != null) ? secondCells[i] : 0);
+                    legal = (secondCells == null || (firstCells[i] & secondCells[i]) == 0)
+                            && (hitCells[i] & ~covered) == 0;
+                }
+                if (legal) {
+                    if (count == MAX_CONFIGURATIONS) {
+                        return count + 1;
+                    }
+                    this.configurations[count][0] = first;
+                    this.configurationKeys[count] = this.placementKeys[0][first];
+                    if (shipCount > 1) {
+                        this.configurations[count][1] = second;
+                        this.configurationKeys[count] += this.placementKeys[1][second] * 0x9E3779B97F4A7C15L;
+                    }
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lists the placements of a ship which do not cross an OCEAN cell or another ship,
+     * and which cover every cell known to belong to the ship
+     * @param ship - index of the ship
+     * @param shipType - ordinal of the ship's cell type
+     * @param size - ship size
+     * @see findBestCell()
+     */
+    private void collectPlacements(int ship, int shipType, int size) {
+        int ownCells = 0;
+        for (byte observation : this.observations) {
+            if (observation == shipType) {
+                ownCells++;
+            }
+        }
+
+        this.placementCounts[ship] = 0;
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                int cellId = row * this.columns + column;
+                if (column + size <= this.columns) {
+                    addPlacementIfLegal(ship, shipType, size, ownCells, cellId, 1);
+                }
+                if (size > 1 && row + size <= this.rows) {
+                    addPlacementIfLegal(ship, shipType, size, ownCells, cellId, this.columns);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores a placement as a bitset if it is legal
+     * @param ship - index of the ship
+     * @param shipType - ordinal of the ship's cell type
+     * @param size - ship size
+     * @param ownCells - number of cells known to belong to the ship
+     * @param start - first cell of the placement
+     * @param stride - distance between two consecutive cells of the placement
+     * @see collectPlacements()
+     */
+    private void addPlacementIfLegal(int ship, int shipType, int size, int ownCells, int start, int stride) {
+        int own = 0;
+        for (int k = 0; k < size; k++) {
+            int observation = this.observations[start + k * stride];
+            if (observation == shipType) {
+                own++;
+            }
+            else if (observation != UNKNOWN && observation != HIT) {
+                return;
+            }
+        }
+        if (own == ownCells) {
+            long[] cellBits = new long[this.words];
+            for (int k = 0; k < size; k++) {
+                int cellId = start + k * stride;
+                cellBits[cellId / WORD_SIZE] |= 1L << cellId;
+            }
+            /* Keyed by its first cell and its orientation, which do not depend on the search */
+            this.placementKeys[ship][this.placementCounts[ship]] =
+                    BoardModel.zobristKey(2 * start + ((stride == 1) ? 0 : 1), this.shipTypes[ship]);
+            this.placements[ship][this.placementCounts[ship]++] = cellBits;
+        }
+    }
+
+    /**
+     * @return the number of cells of the alive ships of a configuration not targeted yet
+     * @param configuration - configuration to deal with
+     * @param shot - cells already targeted
+     * @param alive - one bit per ship not destroyed yet
+     */
+    private int missingShots(int configuration, long[] shot, int alive) {
+        int missing = 0;
+        for (int ship = 0; ship < this.configurations[configuration].length; ship++) {
+            if ((alive & (1 << ship)) != 0) {
+                long[] cellBits = this.placements[ship][this.configurations[configuration][ship]];
+                for (int i = 0; i < this.words; i++) {
+                    missing += Long.bitCount(cellBits[i] & ~shot[i]);
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * @return the index of the alive ship covering a cell in a configuration, -1 if none
+     * @param configuration - configuration to deal with
+     * @param cellId - cell to deal with
+     * @param alive - one bit per ship not destroyed yet
+     */
+    private int owner(int configuration, int cellId, int alive) {
+        for (int ship = 0; ship < this.configurations[configuration].length; ship++) {
+            if ((alive & (1 << ship)) != 0
+                    && (this.placements[ship][this.configurations[configuration][ship]][cellId / WORD_SIZE]
+                        & (1L << cellId)) != 0) {
+                return ship;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the key of a state of the search, made of the configurations consistent
+     * with the state and of the cells of their alive ships already targeted
+     * @param configurations - indices of the configurations consistent with the state
+     * @param count - number of configurations
+     * @param shot - cells already targeted
+     * @param alive - one bit per ship not destroyed yet
+     */
+    private long stateKey(int[] configurations, int count, long[] shot, int alive) {
+        long hash = 0;
+        long[] covered = new long[this.words];
+        for (int c = 0; c < count; c++) {
+            hash ^= this.configurationKeys[configurations[c]];
+            for (int ship = 0; ship < this.configurations[configurations[c]].length; ship++) {
+                if ((alive & (1 << ship)) != 0) {
+                    long[] cellBits = this.placements[ship][this.configurations[configurations[c]][ship]];
+                    for (int i = 0; i < this.words; i++) {
+                        covered[i] |= cellBits[i];
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < this.words; i++) {
+            for (long word = covered[i] & shot[i]; word != 0; word &= word - 1) {
+                hash ^= BoardModel.zobristKey(i * WORD_SIZE + Long.numberOfTrailingZeros(word), CellType.HIT);
+            }
+        }
+
+        long remainingShips = 0;
+        for (int ship = 0; ship < MAX_SHIPS; ship++) {
+            if ((alive & (1 << ship)) != 0) {
+                remainingShips |= this.shipBits[ship];
+            }
+        }
+        return DecisionCache.key(hash, remainingShips, STRATEGY);
+    }
+
+    /**
+     * Computes the expected number of missiles needed to destroy the alive ships,
+     * when the best target is chosen at each step, and memoizes the best target
+     * @param configurations - indices of the configurations consistent with the state
+     * @param count - number of configurations
+     * @param shot - cells already targeted
+     * @param alive - one bit per ship not destroyed yet
+     * @return the expected number of missiles
+     */
+    private double solve(int[] configurations, int count, long[] shot, int alive) {
+        if (alive == 0) {
+            return 0;
+        }
+        long key = stateKey(configurations, count, shot, alive);
+        Solution solution = this.solutions.get(key);
+        if (solution != null) {
+            return solution.expectedShots;
+        }
+        if (++this.nodes > MAX_NODES || ((this.nodes & 15) == 0
+                && (System.nanoTime() > this.deadline || Thread.currentThread().isInterrupted()))) {
+            this.aborted = true;
+        }
+        if (this.aborted) {
+            return 0;
+        }
+
+        /* Candidates: cells covered by an alive ship in some configuration, most covered first */
+        int[] coverage = new int[this.cells];
+        for (int c = 0; c < count; c++) {
+            for (int ship = 0; ship < this.configurations[configurations[c]].length; ship++) {
+                if ((alive & (1 << ship)) != 0) {
+                    long[] cellBits = this.placements[ship][this.configurations[configurations[c]][ship]];
+                    for (int i = 0; i < this.words; i++) {
+                        for (long word = cellBits[i] & ~shot[i]; word != 0; word &= word - 1) {
+                            coverage[i * WORD_SIZE + Long.numberOfTrailingZeros(word)]++;
+                        }
+                    }
+                }
+            }
+        }
+        int[] candidates = new int[this.cells];
+        int candidateCount = 0;
+        for (int cellId = 0; cellId < this.cells; cellId++) {
+            /* A cell covered in every configuration must be targeted anyway: the sooner, the better informed */
+            if (coverage[cellId] == count) {
+                candidates[0] = cellId;
+                candidateCount = 1;
+                break;
+            }
+            if (coverage[cellId] > 0) {
+                candidates[candidateCount++] = (count - coverage[cellId]) * this.cells + cellId;
+            }
+        }
+        if (candidateCount > 1) {
+            Arrays.sort(candidates, 0, candidateCount);
+            for (int k = 0; k < candidateCount; k++) {
+                candidates[k] %= this.cells;
+            }
+        }
+
+        /* Outcomes: 0 for the ocean, then 1 + 2 * ship for a hit and 2 + 2 * ship for a destruction */
+        int outcomeCount = 1 + 2 * MAX_SHIPS;
+        int[][] outcomes = new int[outcomeCount][count];
+        int[] outcomeSizes = new int[outcomeCount];
+        int[] lowerBounds = new int[outcomeCount];
+        long[] nextShot = new long[this.words];
+        HashSet<Long> partitions = new HashSet<>();
+
+        double bestExpectedShots = Double.MAX_VALUE;
+        int bestCell = -1;
+        for (int k = 0; k < candidateCount && ! this.aborted; k++) {
+            int cellId = candidates[k];
+            System.arraycopy(shot, 0, nextShot, 0, this.words);
+            nextShot[cellId / WORD_SIZE] |= 1L << cellId;
+
+            /* Splits the configurations by outcome */
+            Arrays.fill(outcomeSizes, 0);
+            Arrays.fill(lowerBounds, Integer.MAX_VALUE);
+            long partition = 0;
+            for (int c = 0; c < count; c++) {
+                int ship = owner(configurations[c], cellId, alive);
+                int nextAlive = alive;
+                int outcome = 0;
+                if (ship >= 0) {
+                    boolean destroyed = true;
+                    long[] cellBits = this.placements[ship][this.configurations[configurations[c]][ship]];
+                    for (int i = 0; i < this.words && destroyed; i++) {
+                        destroyed = (cellBits[i] & ~nextShot[i]) == 0;
+                    }
+                    outcome = destroyed ? 2 + 2 * ship : 1 + 2 * ship;
+                    nextAlive = destroyed ? alive & ~(1 << ship) : alive;
+                }
+                partition = partition * 31 + outcome;
+                outcomes[outcome][outcomeSizes[outcome]++] = configurations[c];
+                lowerBounds[outcome] = Math.min(lowerBounds[outcome], missingShots(configurations[c], nextShot, nextAlive));
+            }
+
+            /* Cells splitting the configurations the same way are worth the same */
+            if (! partitions.add(partition)) {
+                continue;
+            }
+
+            /* Every alive cell left needs a missile: skips the cell if it cannot beat the best one */
+            double expectedShots = 1;
+            for (int outcome = 0; outcome < outcomeCount; outcome++) {
+                if (outcomeSizes[outcome] > 0) {
+                    expectedShots += (double) outcomeSizes[outcome] / count * lowerBounds[outcome];
+                }
+            }
+            for (int outcome = 0; outcome < outcomeCount && expectedShots < bestExpectedShots; outcome++) {
+                if (outcomeSizes[outcome] > 0) {
+                    int size = outcomeSizes[outcome];
+                    int[] next = Arrays.copyOf(outcomes[outcome], size);
+                    int nextAlive = (outcome > 0 && outcome % 2 == 0) ? alive & ~(1 << ((outcome - 2) / 2)) : alive;
+                    double value = solve(next, size, nextShot, nextAlive);
+                    expectedShots += (double) size / count * (value - lowerBounds[outcome]);
+                }
+            }
+            if (expectedShots < bestExpectedShots) {
+                bestExpectedShots = expectedShots;
+                bestCell = cellId;
+            }
+        }
+
+        if (! this.aborted) {
+            this.solutions.put(key, new Solution(bestExpectedShots, bestCell));
+        }
+        return bestExpectedShots;
+    }
+
+
+    /*=========================================================================*/
+    /* Inner classes                                                           */
+    /*=========================================================================*/
+
+    /**
+     * Solved state: expected number of missiles left and best target
+     */
+    private static final class Solution {
+        final double expectedShots;
+        final int bestCell;
+
+        Solution(double expectedShots, int bestCell) {
+            this.expectedShots = expectedShots;
+            this.bestCell = bestCell;
+        }
+    }
+}
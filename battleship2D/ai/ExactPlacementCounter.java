@@ -0,0 +1,480 @@
+package battleship2D.ai;
+
+import battleship2D.model.BoardModel;
+import battleship2D.model.CellType;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts exactly the fleets made of the remaining ships which are consistent with
+ * the observations, and how many of them cover each cell: the ratio of the two is the
+ * exact probability that a cell contains a ship, all consistent fleets being equally likely.
+ * Fleets are enumerated ship after ship, the most constrained ship first, placements
+ * being bitmasks of two words (bit i stands for cell i), so that overlaps are tested
+ * in two operations. Instead of updating the cells of every fleet, each placement counts
+ * the fleets it belongs to, and placement counts are turned into cell counts at the end.
+ * The enumeration is split across a ForkJoinPool on the placements of the first ship.
+ * Its cost grows with the number of fleets: a computation gives up at its deadline (or once
+ * its caller is interrupted), which happens on an open board, and the caller then falls back
+ * to an estimate.
+ * As an anytime strategy, a search is made of a single step: the count, which gives up at the deadline.
+ */
+public class ExactPlacementCounter implements AnytimeStrategy {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Maximum number of cells of a board: a placement is made of two words */
+    public static final int MAX_CELLS = 128;
+
+    /** Ordinals used to encode observations */
+    private static final int UNKNOWN = CellType.UNKNOWN.ordinal();
+    private static final int HIT = CellType.HIT.ordinal();
+
+    /** Below this number of first ship placements, a task does not split anymore */
+    private static final int PLACEMENTS_PER_TASK = 4;
+
+    /** Number of placements tried between two checks of the deadline */
+    private static final int PLACEMENTS_PER_CHECK = 1 << 14;
+
+    /** Board dimensions */
+    private final int rows, columns;
+
+    /** Observed type of each cell, as a CellType ordinal */
+    private final byte[] observations;
+
+    /** Legal placements of each ship: cells as two words, first cell and distance between cells */
+    private final long[][] placementLows, placementHighs;
+    private final int[][] placementStarts, placementStrides;
+
+    /** Number of legal placements of each ship */
+    private final int[] placementCounts;
+
+    /** Sizes of the ships of the current computation, and the order in which they are placed */
+    private final int[] sizes;
+    private final int[] order;
+    private int shipCount;
+
+    /** Cells observed as HIT (ship unknown), which must be covered by any fleet */
+    private long hitLow, hitHigh;
+
+    /** Pool running the counting tasks */
+    private final ForkJoinPool pool;
+
+    /** Number of consistent fleets, and number of them covering each cell */
+    private long total;
+    private final long[] cellCounts;
+
+    /** System.nanoTime() value after which the current computation gives up */
+    private long deadline;
+
+    /** Thread waiting for the current computation, which gives up once it is interrupted */
+    private Thread caller;
+
+    /** True once the current computation has given up */
+    private volatile boolean aborted;
+
+    /** Remaining ships of the current anytime search */
+    private CellType[] searchShipTypes;
+    private int[] searchShipSizes;
+    private int searchShipCount;
+
+    /** Best cell found by the current anytime search, -1 if none */
+    private int bestCell;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor, counting on the common ForkJoinPool
+     * @param rows - number of rows
+     * @param columns - number of columns
+     * @param maxShips - maximum number of ships taken into account
+     */
+    public ExactPlacementCounter(int rows, int columns, int maxShips) {
+        this(rows, columns, maxShips, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor
+     * @param rows - number of rows
+     * @param columns - number of columns
+     * @param maxShips - maximum number of ships taken into account
+     * @param pool - pool running the counting tasks
+     */
+    public ExactPlacementCounter(int rows, int columns, int maxShips, ForkJoinPool pool) {
+        this.rows = rows;
+        this.columns = columns;
+        this.observations = new byte[rows * columns];
+
+        /* Nothing is counted on larger boards: no need to store their placements */
+        int maxPlacements = (rows * columns <= MAX_CELLS) ? 2 * rows * columns : 0;
+        this.placementLows = new long[maxShips][maxPlacements];
+        this.placementHighs = new long[maxShips][maxPlacements];
+        this.placementStarts = new int[maxShips][maxPlacements];
+        this.placementStrides = new int[maxShips][maxPlacements];
+        this.placementCounts = new int[maxShips];
+        this.sizes = new int[maxShips];
+        this.order = new int[maxShips];
+        this.cellCounts = new long[rows * columns];
+        this.pool = pool;
+        this.bestCell = -1;
+        clear();
+    }
+
+    /**
+     * Forgets every observation
+     */
+    public final void clear() {
+        Arrays.fill(this.observations, (byte) UNKNOWN);
+    }
+
+    /**
+     * Counts the consistent fleets, and those covering each cell
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships
+     * @param deadline - System.nanoTime() value after which the computation gives up
+     * @return false if the computation has given up (or if the board is too large): the counts are then meaningless
+     */
+    public boolean count(CellType[] shipTypes, int[] shipSizes, int shipCount, long deadline) {
+        this.total = 0;
+        Arrays.fill(this.cellCounts, 0);
+        if (this.observations.length > MAX_CELLS) {
+            return false;
+        }
+        if (shipCount == 0) {
+            return true;
+        }
+
+        this.shipCount = shipCount;
+        this.hitLow = 0;
+        this.hitHigh = 0;
+        for (int cellId = 0; cellId < this.observations.length; cellId++) {
+            if (this.observations[cellId] == HIT) {
+                if (cellId < Long.SIZE) {
+                    this.hitLow |= 1L << cellId;
+                }
+                else {
+                    this.hitHigh |= 1L << cellId;
+                }
+            }
+        }
+        for (int ship = 0; ship < shipCount; ship++) {
+            this.sizes[ship] = shipSizes[ship];
+            collectPlacements(ship, shipTypes[ship].ordinal(), shipSizes[ship]);
+            if (this.placementCounts[ship] == 0) {
+                return true;
+            }
+        }
+        sortShipsByPlacementCount();
+
+        this.deadline = deadline;
+        this.caller = Thread.currentThread();
+        this.aborted = false;
+        long[][] fleetCounts = this.pool.invoke(new CountingTask(0, this.placementCounts[this.order[0]]));
+        if (this.aborted) {
+            return false;
+        }
+
+        /* Each placement adds the number of fleets it belongs to to each of its cells */
+        for (int ship = 0; ship < shipCount; ship++) {
+            for (int placement = 0; placement < this.placementCounts[ship]; placement++) {
+                long fleets = fleetCounts[ship][placement];
+                if (fleets > 0) {
+                    for (int k = 0; k < this.sizes[ship]; k++) {
+                        this.cellCounts[this.placementStarts[ship][placement] + k * this.placementStrides[ship][placement]] += fleets;
+                    }
+                }
+            }
+        }
+        for (int placement = 0; placement < this.placementCounts[this.order[0]]; placement++) {
+            this.total += fleetCounts[this.order[0]][placement];
+        }
+        return true;
+    }
+
+    /**
+     * Counts the consistent fleets, then keeps the UNKNOWN cell covered by the most of them
+     * as the best cell, -1 if the count has given up: there is no other step
+     */
+    @Override
+    public boolean improve(long deadline) {
+        this.bestCell = count(this.searchShipTypes, this.searchShipSizes, this.searchShipCount, deadline)
+                ? selectBestCell() : -1;
+        return false;
+    }
+
+    /**
+     * Copies every observation of a board
+     * @param boardModel - observation board, made of UNKNOWN, OCEAN, HIT and ship cells
+     */
+    public void load(BoardModel boardModel) {
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                this.observations[row * this.columns + column] =
+                        (byte) boardModel.getCellModel(row, column).getCellType().ordinal();
+            }
+        }
+    }
+
+    @Override
+    public void start(BoardModel observations, CellType[] shipTypes, int[] shipSizes, int shipCount) {
+        load(observations);
+        this.searchShipTypes = shipTypes;
+        this.searchShipSizes = shipSizes;
+        this.searchShipCount = shipCount;
+        this.bestCell = -1;
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    @Override
+    public int getBestCell() {
+        return this.bestCell;
+    }
+
+    /**
+     * @return the number of consistent fleets covering a cell, after the last computation
+     * @param cellId - cell to deal with
+     */
+    public long getCellCount(int cellId) {
+        return this.cellCounts[cellId];
+    }
+
+    /**
+     * @return the number of consistent fleets, after the last computation
+     */
+    public long getTotal() {
+        return this.total;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Stores a placement if it does not cross an OCEAN cell or another ship,
+     * and covers every cell known to belong to the ship
+     * @param ship - index of the ship
+     * @param shipType - ordinal of the ship's cell type
+     * @param size - ship size
+     * @param ownCells - number of cells known to belong to the ship
+     * @param start - first cell of the placement
+     * @param stride - distance between two consecutive cells of the placement
+     * @see collectPlacements()
+     */
+    private void addPlacementIfLegal(int ship, int shipType, int size, int ownCells, int start, int stride) {
+        int own = 0;
+        long low = 0;
+        long high = 0;
+        for (int k = 0; k < size; k++) {
+            int cellId = start + k * stride;
+            int observation = this.observations[cellId];
+            if (observation == shipType) {
+                own++;
+            }
+            else if (observation != UNKNOWN && observation != HIT) {
+                return;
+            }
+            if (cellId < Long.SIZE) {
+                low |= 1L << cellId;
+            }
+            else {
+                high |= 1L << cellId;
+            }
+        }
+        if (own == ownCells) {
+            int index = this.placementCounts[ship]++;
+            this.placementLows[ship][index] = low;
+            this.placementHighs[ship][index] = high;
+            this.placementStarts[ship][index] = start;
+            this.placementStrides[ship][index] = stride;
+        }
+    }
+
+    /**
+     * Lists the placements of a ship consistent with the observations, regardless of the other ships
+     * @param ship - index of the ship
+     * @param shipType - ordinal of the ship's cell type
+     * @param size - ship size
+     * @see count()
+     */
+    private void collectPlacements(int ship, int shipType, int size) {
+        int ownCells = 0;
+        for (byte observation : this.observations) {
+            if (observation == shipType) {
+                ownCells++;
+            }
+        }
+
+        this.placementCounts[ship] = 0;
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                int cellId = row * this.columns + column;
+                if (column + size <= this.columns) {
+                    addPlacementIfLegal(ship, shipType, size, ownCells, cellId, 1);
+                }
+                if (size > 1 && row + size <= this.rows) {
+                    addPlacementIfLegal(ship, shipType, size, ownCells, cellId, this.columns);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the UNKNOWN cell covered by the most fleets (the first one in case of a tie),
+     * -1 if no UNKNOWN cell is covered
+     * @see improve()
+     */
+    private int selectBestCell() {
+        int bestCell = -1;
+        long bestCount = 0;
+        for (int cellId = 0; cellId < this.observations.length; cellId++) {
+            if (this.observations[cellId] == UNKNOWN && this.cellCounts[cellId] > bestCount) {
+                bestCount = this.cellCounts[cellId];
+                bestCell = cellId;
+            }
+        }
+        return bestCell;
+    }
+
+    /**
+     * Places the ships with the fewest legal placements first: the enumeration
+     * then prunes as early as possible
+     * @see count()
+     */
+    private void sortShipsByPlacementCount() {
+        for (int i = 0; i < this.shipCount; i++) {
+            this.order[i] = i;
+        }
+        for (int i = 1; i < this.shipCount; i++) {
+            int ship = this.order[i];
+            int j = i - 1;
+            for (; j >= 0 && this.placementCounts[this.order[j]] > this.placementCounts[ship]; j--) {
+                this.order[j + 1] = this.order[j];
+            }
+            this.order[j + 1] = ship;
+        }
+    }
+
+
+    /*=========================================================================*/
+    /* Inner classes                                                           */
+    /*=========================================================================*/
+
+    /**
+     * Counts the fleets whose first ship lies on a range of its placements,
+     * splitting the range in two halves while it is large enough
+     */
+    private class CountingTask extends RecursiveTask<long[][]> {
+        private static final long serialVersionUID = 1L;
+
+        /** Range of placements of the first ship */
+        private final int from, to;
+
+        /** Number of fleets each placement of each ship belongs to */
+        private long[][] fleetCounts;
+
+        /** Number of placements tried since the last check of the deadline */
+        private int tries;
+
+        CountingTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (this.to - this.from > PLACEMENTS_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                CountingTask left = new CountingTask(this.from, middle);
+                CountingTask right = new CountingTask(middle, this.to);
+                left.fork();
+                long[][] counts = right.compute();
+                long[][] leftCounts = left.join();
+                for (int ship = 0; ship < shipCount; ship++) {
+                    for (int placement = 0; placement < placementCounts[ship]; placement++) {
+                        counts[ship][placement] += leftCounts[ship][placement];
+                    }
+                }
+                return counts;
+            }
+
+            this.fleetCounts = new long[shipCount][];
+            for (int ship = 0; ship < shipCount; ship++) {
+                this.fleetCounts[ship] = new long[placementCounts[ship]];
+            }
+            int first = order[0];
+            for (int placement = this.from; placement < this.to && ! aborted; placement++) {
+                if (shipCount == 1) {
+                    countLastShip(first, placement, 0, 0);
+                }
+                else {
+                    this.fleetCounts[first][placement] += countFleets(1, placementLows[first][placement],
+                                                                      placementHighs[first][placement]);
+                }
+            }
+            return this.fleetCounts;
+        }
+
+        /**
+         * Counts the ways of placing the ships from a depth on, without overlapping the cells already occupied
+         * @param depth - rank of the next ship to place, in placement order
+         * @param low - occupied cells, first word
+         * @param high - occupied cells, second word
+         * @return the number of fleets
+         */
+        private long countFleets(int depth, long low, long high) {
+            if (aborted) {
+                return 0;
+            }
+            int ship = order[depth];
+            long[] lows = placementLows[ship];
+            long[] highs = placementHighs[ship];
+            long total = 0;
+            for (int placement = 0; placement < placementCounts[ship]; placement++) {
+                if ((lows[placement] & low) != 0 || (highs[placement] & high) != 0) {
+                    continue;
+                }
+                long fleets = (depth == shipCount - 1) ? countLastShip(ship, placement, low, high)
+                                                       : countFleets(depth + 1, low | lows[placement],
+                                                                     high | highs[placement]);
+                if (fleets > 0 && depth < shipCount - 1) {
+                    this.fleetCounts[ship][placement] += fleets;
+                }
+                total += fleets;
+            }
+            if ((this.tries += placementCounts[ship]) >= PLACEMENTS_PER_CHECK) {
+                this.tries = 0;
+                if (System.nanoTime() > deadline || caller.isInterrupted()) {
+                    aborted = true;
+                }
+            }
+            return aborted ? 0 : total;
+        }
+
+        /**
+         * Completes a fleet with a placement of its last ship
+         * @param ship - last ship
+         * @param placement - placement of the last ship, which does not overlap the other ships
+         * @param low - cells occupied by the other ships, first word
+         * @param high - cells occupied by the other ships, second word
+         * @return 1 if the fleet covers every HIT cell, 0 otherwise
+         */
+        private long countLastShip(int ship, int placement, long low, long high) {
+            if ((hitLow & ~(low | placementLows[ship][placement])) != 0
+                    || (hitHigh & ~(high | placementHighs[ship][placement])) != 0) {
+                return 0;
+            }
+            this.fleetCounts[ship][placement]++;
+            return 1;
+        }
+    }
+}
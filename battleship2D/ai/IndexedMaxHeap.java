@@ -0,0 +1,207 @@
+package battleship2D.ai;
+
+import java.util.Arrays;
+
+/**
+ * Binary max-heap of cell identifiers ordered by an integer score.
+ * Each cell appears at most once: its position inside the heap is indexed,
+ * so that increasing the score of a cell already in the heap and extracting
+ * the best cell both take O(log n), without boxing.
+ * Ties are broken deterministically: amongst cells sharing the best score,
+ * the one inserted first is extracted first.
+ */
+public class IndexedMaxHeap {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Cell identifiers stored in heap order */
+    private final int[] heap;
+
+    /** Position of each cell in heap, -1 if the cell is not in the heap */
+    private final int[] positions;
+
+    /** Score of each cell */
+    private final int[] scores;
+
+    /** Insertion rank of each cell, used to break ties */
+    private final long[] ranks;
+
+    /** Number of cells in the heap */
+    private int size;
+
+    /** Insertion counter */
+    private long insertions;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param capacity - number of cells of the board: identifiers range from 0 to capacity - 1
+     */
+    public IndexedMaxHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.scores = new int[capacity];
+        this.ranks = new long[capacity];
+        clear();
+    }
+
+    /**
+     * Removes every cell from the heap
+     */
+    public final void clear() {
+        Arrays.fill(this.positions, -1);
+        this.size = 0;
+        this.insertions = 0;
+    }
+
+    /**
+     * Makes this heap an exact copy of another one
+     * @param other - heap to copy, of the same capacity
+     */
+    public void copyFrom(IndexedMaxHeap other) {
+        System.arraycopy(other.heap, 0, this.heap, 0, this.heap.length);
+        System.arraycopy(other.positions, 0, this.positions, 0, this.positions.length);
+        System.arraycopy(other.scores, 0, this.scores, 0, this.scores.length);
+        System.arraycopy(other.ranks, 0, this.ranks, 0, this.ranks.length);
+        this.size = other.size;
+        this.insertions = other.insertions;
+    }
+
+    /**
+     * @return true if a cell is currently in the heap
+     * @param cellId - cell to deal with
+     */
+    public boolean contains(int cellId) {
+        return this.positions[cellId] >= 0;
+    }
+
+    /**
+     * Removes the cell with the best score from the heap
+     * @return the removed cell, -1 if the heap is empty
+     */
+    public int extractMax() {
+        if (this.size == 0) {
+            return -1;
+        }
+        int best = this.heap[0];
+        this.positions[best] = -1;
+        this.size--;
+
+        if (this.size > 0) {
+            place(this.heap[this.size], 0);
+            siftDown(0);
+        }
+        return best;
+    }
+
+    /**
+     * Increases the score of a cell, inserting it with a zero score first if needed
+     * @param cellId - cell to deal with
+     * @param increment - positive amount to add to the cell score
+     */
+    public void increaseKey(int cellId, int increment) {
+        if (! contains(cellId)) {
+            this.scores[cellId] = 0;
+            this.ranks[cellId] = this.insertions++;
+            place(cellId, this.size++);
+        }
+        this.scores[cellId] += increment;
+        siftUp(this.positions[cellId]);
+    }
+
+    /**
+     * @return true if there is no cell in the heap
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return the score of a cell in the heap
+     * @param cellId - cell to deal with
+     */
+    public int score(int cellId) {
+        return this.scores[cellId];
+    }
+
+    /**
+     * @return the number of cells in the heap
+     */
+    public int size() {
+        return this.size;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * @return true if cell a must be extracted before cell b
+     * @param a - first cell
+     * @param b - second cell
+     */
+    private boolean isBefore(int a, int b) {
+        if (this.scores[a] != this.scores[b]) {
+            return this.scores[a] > this.scores[b];
+        }
+        return this.ranks[a] < this.ranks[b];
+    }
+
+    /**
+     * Stores a cell at a given position of the heap
+     * @param cellId - cell to store
+     * @param position - position in the heap
+     */
+    private void place(int cellId, int position) {
+        this.heap[position] = cellId;
+        this.positions[cellId] = position;
+    }
+
+    /**
+     * Moves a cell down until both its children come after it
+     * @param position - current position of the cell
+     * @see extractMax()
+     */
+    private void siftDown(int position) {
+        int cellId = this.heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= this.size) {
+                break;
+            }
+            if (child + 1 < this.size && isBefore(this.heap[child + 1], this.heap[child])) {
+                child++;
+            }
+            if (! isBefore(this.heap[child], cellId)) {
+                break;
+            }
+            place(this.heap[child], position);
+            position = child;
+        }
+        place(cellId, position);
+    }
+
+    /**
+     * Moves a cell up until its parent comes before it
+     * @param position - current position of the cell
+     * @see increaseKey()
+     */
+    private void siftUp(int position) {
+        int cellId = this.heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (! isBefore(cellId, this.heap[parent])) {
+                break;
+            }
+            place(this.heap[parent], position);
+            position = parent;
+        }
+        place(cellId, position);
+    }
+}
@@ -0,0 +1,416 @@
+package battleship2D.ai;
+
+import battleship2D.model.BoardModel;
+import battleship2D.model.CellType;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates the probability that each cell contains a ship by drawing many
+ * random placements of the whole remaining fleet, consistent with the
+ * observations, and counting how often each cell is covered.
+ * Sampling is split across a ForkJoinPool: each task owns its random stream
+ * (split from its parent's) and its own histogram, histograms are merged
+ * when tasks are joined.
+ * As an anytime strategy, each step draws one more batch of fleets, until the
+ * number of samples is reached: the caller's deadline bounds the sampling time.
+ */
+public class MonteCarloEngine implements AnytimeStrategy {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Ordinals used to encode observations */
+    private static final int UNKNOWN = CellType.UNKNOWN.ordinal();
+    private static final int HIT = CellType.HIT.ordinal();
+
+    /** Below this number of samples, a task does not split anymore */
+    private static final int SAMPLES_PER_TASK = 512;
+
+    /** Number of samples drawn per anytime step and per pool thread */
+    private static final int SAMPLES_PER_STEP = 4 * SAMPLES_PER_TASK;
+
+    /** Number of rejected draws allowed for each requested sample */
+    private static final int ATTEMPTS_PER_SAMPLE = 20;
+
+    /** Board dimensions */
+    private final int rows, columns;
+
+    /** Observed type of each cell, as a CellType ordinal */
+    private final byte[] observations;
+
+    /** Legal placements of each ship, given by their first cell and the distance between their cells */
+    private final int[][] placementStarts, placementStrides;
+
+    /** Number of legal placements of each ship */
+    private final int[] placementCounts;
+
+    /** Sizes of the ships taken into account by the current computation */
+    private final int[] sizes;
+    private int shipCount;
+
+    /** Cells observed as HIT (ship unknown), which must be covered by any drawn fleet */
+    private final int[] hitCells;
+    private int hitCount;
+
+    /** Pool running the sampling tasks */
+    private final ForkJoinPool pool;
+
+    /** Root random generator, split for each computation */
+    private final SplittableRandom random;
+
+    /** Maximum number of samples per computation */
+    private int sampleCount;
+
+    /** Histogram accumulated by the current anytime search, followed by the number of accepted fleets */
+    private final int[] histogram;
+
+    /** False if a ship of the current anytime search has no legal placement */
+    private boolean consistent;
+
+    /** Best cell found by the current anytime search, -1 if none */
+    private int bestCell;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor, sampling on the common ForkJoinPool
+     * @param rows - number of rows
+     * @param columns - number of columns
+     * @param maxShips - maximum number of ships taken into account
+     */
+    public MonteCarloEngine(int rows, int columns, int maxShips) {
+        this(rows, columns, maxShips, ForkJoinPool.commonPool(), new SplittableRandom());
+    }
+
+    /**
+     * Constructor
+     * @param rows - number of rows
+     * @param columns - number of columns
+     * @param maxShips - maximum number of ships taken into account
+     * @param pool - pool running the sampling tasks
+     * @param random - root random generator
+     */
+    public MonteCarloEngine(int rows, int columns, int maxShips,
+                            ForkJoinPool pool, SplittableRandom random) {
+        this.rows = rows;
+        this.columns = columns;
+        this.observations = new byte[rows * columns];
+        this.placementStarts = new int[maxShips][2 * rows * columns];
+        this.placementStrides = new int[maxShips][2 * rows * columns];
+        this.placementCounts = new int[maxShips];
+        this.sizes = new int[maxShips];
+        this.hitCells = new int[rows * columns];
+        this.pool = pool;
+        this.random = random;
+        this.sampleCount = 10000;
+        this.histogram = new int[rows * columns + 1];
+        this.bestCell = -1;
+        clear();
+    }
+
+    /**
+     * Forgets every observation
+     */
+    public final void clear() {
+        Arrays.fill(this.observations, (byte) UNKNOWN);
+    }
+
+    /**
+     * Draws random fleets and returns the UNKNOWN cell covered most often
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships
+     * @return the best cell identifier, -1 if no consistent fleet has been drawn
+     */
+    public int findBestCell(CellType[] shipTypes, int[] shipSizes, int shipCount) {
+        return selectBestCell(sample(shipTypes, shipSizes, shipCount));
+    }
+
+    @Override
+    public boolean improve(long deadline) {
+        int cells = this.observations.length;
+        int missing = this.sampleCount - this.histogram[cells];
+        if (! this.consistent || missing <= 0) {
+            return false;
+        }
+        int samples = Math.min(missing, SAMPLES_PER_STEP * this.pool.getParallelism());
+        int[] batch = this.pool.invoke(new SamplingTask(samples, this.random.split(), deadline));
+        for (int i = 0; i <= cells; i++) {
+            this.histogram[i] += batch[i];
+        }
+        this.bestCell = selectBestCell(this.histogram);
+
+        /* A batch without any consistent fleet: the next ones are unlikely to do better */
+        return batch[cells] > 0 && this.histogram[cells] < this.sampleCount;
+    }
+
+    /**
+     * Copies every observation of a board
+     * @param boardModel - observation board, made of UNKNOWN, OCEAN, HIT and ship cells
+     */
+    public void load(BoardModel boardModel) {
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                this.observations[row * this.columns + column] =
+                        (byte) boardModel.getCellModel(row, column).getCellType().ordinal();
+            }
+        }
+    }
+
+    @Override
+    public void start(BoardModel observations, CellType[] shipTypes, int[] shipSizes, int shipCount) {
+        load(observations);
+        this.consistent = preparePlacements(shipTypes, shipSizes, shipCount);
+        Arrays.fill(this.histogram, 0);
+        this.bestCell = -1;
+    }
+
+    /**
+     * Records the observed type of a cell
+     * @param cellId - cell to deal with
+     * @param cellType - observed type
+     */
+    public void observe(int cellId, CellType cellType) {
+        this.observations[cellId] = (byte) cellType.ordinal();
+    }
+
+    /**
+     * Draws random fleets consistent with the observations
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships
+     * @return the number of accepted fleets covering each cell; the last element
+     * holds the number of accepted fleets
+     */
+    public int[] sample(CellType[] shipTypes, int[] shipSizes, int shipCount) {
+        if (! preparePlacements(shipTypes, shipSizes, shipCount)) {
+            return new int[this.observations.length + 1];
+        }
+        return this.pool.invoke(new SamplingTask(this.sampleCount, this.random.split(), Long.MAX_VALUE));
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    @Override
+    public int getBestCell() {
+        return this.bestCell;
+    }
+
+    public int getSampleCount() {
+        return this.sampleCount;
+    }
+
+    public void setSampleCount(int sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Lists the placements of a ship consistent with the observations, regardless of the other ships
+     * @param ship - index of the ship
+     * @param shipType - ordinal of the ship's cell type
+     * @param size - ship size
+     * @see sample()
+     */
+    private void collectPlacements(int ship, int shipType, int size) {
+        int ownCells = 0;
+        for (byte observation : this.observations) {
+            if (observation == shipType) {
+                ownCells++;
+            }
+        }
+
+        this.placementCounts[ship] = 0;
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                int cellId = row * this.columns + column;
+                if (column + size <= this.columns) {
+                    addPlacementIfLegal(ship, shipType, size, ownCells, cellId, 1);
+                }
+                if (size > 1 && row + size <= this.rows) {
+                    addPlacementIfLegal(ship, shipType, size, ownCells, cellId, this.columns);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores a placement if it does not cross an OCEAN cell or another ship,
+     * and covers every cell known to belong to the ship
+     * @param ship - index of the ship
+     * @param shipType - ordinal of the ship's cell type
+     * @param size - ship size
+     * @param ownCells - number of cells known to belong to the ship
+     * @param start - first cell of the placement
+     * @param stride - distance between two consecutive cells of the placement
+     * @see collectPlacements()
+     */
+    private void addPlacementIfLegal(int ship, int shipType, int size, int ownCells,
+                                     int start, int stride) {
+        int own = 0;
+        for (int k = 0; k < size; k++) {
+            int observation = this.observations[start + k * stride];
+            if (observation == shipType) {
+                own++;
+            }
+            else if (observation != UNKNOWN && observation != HIT) {
+                return;
+            }
+        }
+        if (own == ownCells) {
+            int index = this.placementCounts[ship]++;
+            this.placementStarts[ship][index] = start;
+            this.placementStrides[ship][index] = stride;
+        }
+    }
+
+    /**
+     * Lists the legal placements of every remaining ship and the cells observed as HIT
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships
+     * @return false if a ship has no legal placement: no consistent fleet exists
+     * @see sample()
+     * @see start()
+     */
+    private boolean preparePlacements(CellType[] shipTypes, int[] shipSizes, int shipCount) {
+        this.shipCount = shipCount;
+        this.hitCount = 0;
+        for (int cellId = 0; cellId < this.observations.length; cellId++) {
+            if (this.observations[cellId] == HIT) {
+                this.hitCells[this.hitCount++] = cellId;
+            }
+        }
+        for (int ship = 0; ship < shipCount; ship++) {
+            this.sizes[ship] = shipSizes[ship];
+            collectPlacements(ship, shipTypes[ship].ordinal(), shipSizes[ship]);
+            if (this.placementCounts[ship] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the UNKNOWN cell covered most often, -1 if no UNKNOWN cell is covered
+     * @param histogram - number of accepted fleets covering each cell
+     * @see findBestCell()
+     * @see improve()
+     */
+    private int selectBestCell(int[] histogram) {
+        int bestCell = -1;
+        int bestCount = 0;
+        for (int cellId = 0; cellId < this.observations.length; cellId++) {
+            if (this.observations[cellId] == UNKNOWN && histogram[cellId] > bestCount) {
+                bestCount = histogram[cellId];
+                bestCell = cellId;
+            }
+        }
+        return bestCell;
+    }
+
+
+    /*=========================================================================*/
+    /* Inner classes                                                           */
+    /*=========================================================================*/
+
+    /**
+     * Draws a number of fleets, splitting the work in two halves while it is large enough
+     */
+    private class SamplingTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        /** Number of fleets to draw */
+        private final int samples;
+
+        /** Random stream owned by this task */
+        private final SplittableRandom random;
+
+        /** System.nanoTime() value after which sampling stops */
+        private final long deadline;
+
+        SamplingTask(int samples, SplittableRandom random, long deadline) {
+            this.samples = samples;
+            this.random = random;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (this.samples <= SAMPLES_PER_TASK) {
+                return drawFleets();
+            }
+            SamplingTask left = new SamplingTask(this.samples / 2, this.random.split(), this.deadline);
+            SamplingTask right = new SamplingTask(this.samples - this.samples / 2, this.random, this.deadline);
+            left.fork();
+            int[] histogram = right.compute();
+            int[] leftHistogram = left.join();
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += leftHistogram[i];
+            }
+            return histogram;
+        }
+
+        /**
+         * Draws fleets one ship after the other; a fleet is rejected as soon as two ships
+         * overlap, or if an observed HIT cell is left uncovered
+         * @return the histogram of covered cells, followed by the number of accepted fleets
+         */
+        private int[] drawFleets() {
+            int cells = observations.length;
+            int[] histogram = new int[cells + 1];
+            int[] occupied = new int[cells];
+            int[] chosen = new int[shipCount];
+            int stamp = 0;
+
+            for (int attempt = 0; attempt < this.samples * ATTEMPTS_PER_SAMPLE
+                                  && histogram[cells] < this.samples; attempt++) {
+                if ((attempt & 63) == 0 && System.nanoTime() > this.deadline) {
+                    break;
+                }
+                stamp++;
+                boolean accepted = true;
+                for (int ship = 0; ship < shipCount && accepted; ship++) {
+                    chosen[ship] = this.random.nextInt(placementCounts[ship]);
+                    int start = placementStarts[ship][chosen[ship]];
+                    int stride = placementStrides[ship][chosen[ship]];
+                    for (int k = 0; k < sizes[ship]; k++) {
+                        int cellId = start + k * stride;
+                        if (occupied[cellId] == stamp) {
+                            accepted = false;
+                            break;
+                        }
+                        occupied[cellId] = stamp;
+                    }
+                }
+                for (int i = 0; i < hitCount && accepted; i++) {
+                    accepted = (occupied[hitCells[i]] == stamp);
+                }
+
+                if (accepted) {
+                    histogram[cells]++;
+                    for (int ship = 0; ship < shipCount; ship++) {
+                        int start = placementStarts[ship][chosen[ship]];
+                        int stride = placementStrides[ship][chosen[ship]];
+                        for (int k = 0; k < sizes[ship]; k++) {
+                            histogram[start + k * stride]++;
+                        }
+                    }
+                }
+            }
+            return histogram;
+        }
+    }
+}
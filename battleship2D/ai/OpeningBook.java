@@ -0,0 +1,162 @@
+package battleship2D.ai;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Targets chosen in the early observation states of a game, computed offline by self-play
+ * (see battleship2D.engine.OpeningBookGenerator), so that the first missiles cost no search.
+ * States are identified like in DecisionCache, by the key of their canonical form, and the
+ * targets are given in the canonical frame. A book only applies to the board size it has
+ * been generated for.
+ * File format: magic number, version, rows, columns, number of entries, then the entries
+ * sorted by key, each made of a key (long) and a cell identifier (int).
+ */
+public class OpeningBook {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Resource holding the default book */
+    public static final String RESOURCE = "/battleship2D/data/openingBook.bin";
+
+    /** File header */
+    private static final int MAGIC = 0x42534F42;
+    private static final int VERSION = 1;
+
+    /** Default book, loaded on first use */
+    private static OpeningBook defaultBook;
+
+    /** Board dimensions the book has been generated for */
+    private final int rows, columns;
+
+    /** State keys, in increasing order, and the matching targets */
+    private final long[] keys;
+    private final int[] cellIds;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param rows - number of rows of the boards
+     * @param columns - number of columns of the boards
+     * @param keys - state keys
+     * @pre keys are sorted in increasing order
+     * @param cellIds - target of each state, in the canonical frame
+     */
+    public OpeningBook(int rows, int columns, long[] keys, int[] cellIds) {
+        this.rows = rows;
+        this.columns = columns;
+        this.keys = keys;
+        this.cellIds = cellIds;
+    }
+
+    /**
+     * @return true if the book has been generated for boards of a given size
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public boolean appliesTo(int rows, int columns) {
+        return this.rows == rows && this.columns == columns && this.keys.length > 0;
+    }
+
+    /**
+     * @return the target of a state, in the canonical frame, -1 if the state is out of the book
+     * @param key - state key
+     * @see DecisionCache#key(long, long, int)
+     */
+    public int get(long key) {
+        int index = Arrays.binarySearch(this.keys, key);
+        return (index >= 0) ? this.cellIds[index] : -1;
+    }
+
+    /**
+     * @return the default book, an empty one if its resource cannot be read
+     */
+    public static synchronized OpeningBook getDefault() {
+        if (defaultBook == null) {
+            try (InputStream inputStream = OpeningBook.class.getResourceAsStream(RESOURCE)) {
+                if (inputStream == null) {
+                    throw new IOException("resource not found");
+                }
+                defaultBook = read(inputStream);
+            }
+            catch (IOException ex) {
+                System.err.println("OpeningBook::getDefault: cannot read " + RESOURCE + ": " + ex.getMessage());
+                defaultBook = new OpeningBook(0, 0, new long[0], new int[0]);
+            }
+        }
+        return defaultBook;
+    }
+
+    /**
+     * Reads a book
+     * @param inputStream - stream to read, left open
+     * @return the book
+     * @throws IOException if the stream cannot be read or does not hold a book
+     */
+    public static OpeningBook read(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("not an opening book");
+        }
+        int rows = input.readInt();
+        int columns = input.readInt();
+        int entries = input.readInt();
+
+        long[] keys = new long[entries];
+        int[] cellIds = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            keys[i] = input.readLong();
+            cellIds[i] = input.readInt();
+        }
+        return new OpeningBook(rows, columns, keys, cellIds);
+    }
+
+    /**
+     * @return the number of states in the book
+     */
+    public int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * Writes this book
+     * @param outputStream - stream to write, left open
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(this.rows);
+        output.writeInt(this.columns);
+        output.writeInt(this.keys.length);
+        for (int i = 0; i < this.keys.length; i++) {
+            output.writeLong(this.keys[i]);
+            output.writeInt(this.cellIds[i]);
+        }
+        output.flush();
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public int getColumns() {
+        return this.columns;
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+}
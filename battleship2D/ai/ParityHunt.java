@@ -0,0 +1,134 @@
+package battleship2D.ai;
+
+import java.util.Random;
+
+/**
+ * Hunt mode on a checkerboard: while no ship is wounded, a ship of length at least m
+ * always covers a cell whose (row + column) is a multiple of m, so that only these cells
+ * need to be targeted, m being the length of the smallest ship not destroyed yet.
+ * The UNKNOWN cells and the parity masks are kept as bitsets (bit i stands for cell i):
+ * the candidates are their intersection, computed a word at a time.
+ */
+public class ParityHunt {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Number of bits stored in a bitset word */
+    private static final int WORD_SIZE = 64;
+
+    /** Board dimensions */
+    private final int rows, columns;
+
+    /** Number of words in each bitset */
+    private final int words;
+
+    /** Cells which have not been targeted yet */
+    private final long[] unknownCells;
+
+    /** Parity mask of each modulus, built on first use, null until then */
+    private final long[][] parityMasks;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor: every cell is unknown at first
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public ParityHunt(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.words = (rows * columns + WORD_SIZE - 1) / WORD_SIZE;
+        this.unknownCells = new long[this.words];
+        this.parityMasks = new long[Math.max(rows, columns) + 1][];
+
+        for (int cellId = 0; cellId < rows * columns; cellId++) {
+            this.unknownCells[cellId / WORD_SIZE] |= 1L << cellId;
+        }
+    }
+
+    /**
+     * Makes the unknown cells of this hunt a copy of those of another one
+     * @param other - hunt to copy, on a board of the same size
+     */
+    public void copyFrom(ParityHunt other) {
+        System.arraycopy(other.unknownCells, 0, this.unknownCells, 0, this.words);
+    }
+
+    /**
+     * Picks an unknown cell at random amongst those of the parity of a modulus,
+     * or amongst every unknown cell if none of them is left
+     * @param modulus - length of the smallest ship not destroyed yet
+     * @param random - random generator
+     * @return the cell identifier, -1 if every cell is known
+     */
+    public int findCandidate(int modulus, Random random) {
+        long[] mask = (modulus > 1) ? parityMask(Math.min(modulus, this.parityMasks.length - 1)) : null;
+
+        int count = 0;
+        if (mask != null) {
+            for (int i = 0; i < this.words; i++) {
+                count += Long.bitCount(this.unknownCells[i] & mask[i]);
+            }
+        }
+        if (count == 0) {
+            mask = null;
+            for (int i = 0; i < this.words; i++) {
+                count += Long.bitCount(this.unknownCells[i]);
+            }
+            if (count == 0) {
+                return -1;
+            }
+        }
+
+        /* Selects the n-th candidate */
+        int n = random.nextInt(count);
+        for (int i = 0; i < this.words; i++) {
+            long word = (mask != null) ? this.unknownCells[i] & mask[i] : this.unknownCells[i];
+            int bits = Long.bitCount(word);
+            if (n < bits) {
+                for (; n > 0; n--) {
+                    word &= word - 1;
+                }
+                return i * WORD_SIZE + Long.numberOfTrailingZeros(word);
+            }
+            n -= bits;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes a cell from the unknown ones
+     * @param cellId - cell which has just been targeted
+     */
+    public void markKnown(int cellId) {
+        this.unknownCells[cellId / WORD_SIZE] &= ~(1L << cellId);
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * @return the cells whose (row + column) is a multiple of a modulus
+     * @param modulus - modulus to deal with, greater than 1
+     */
+    private long[] parityMask(int modulus) {
+        if (this.parityMasks[modulus] == null) {
+            long[] mask = new long[this.words];
+            for (int row = 0; row < this.rows; row++) {
+                for (int column = (modulus - row % modulus) % modulus; column < this.columns; column += modulus) {
+                    int cellId = row * this.columns + column;
+                    mask[cellId / WORD_SIZE] |= 1L << cellId;
+                }
+            }
+            this.parityMasks[modulus] = mask;
+        }
+        return this.parityMasks[modulus];
+    }
+}
@@ -0,0 +1,334 @@
+package battleship2D.ai;
+
+import battleship2D.model.BoardModel;
+import battleship2D.model.CellType;
+import java.util.Arrays;
+
+/**
+ * Counts, for every cell of an observation board, how many legal placements
+ * of each remaining ship cover it.
+ * A placement is legal if it stays inside the board, does not cross a cell
+ * known as OCEAN or as a part of another ship, and covers every cell already
+ * known as a part of the ship itself. Cells observed as HIT (ship unknown)
+ * may be covered by any ship.
+ *
+ * Placements are stored as "legal start" arrays, one per orientation, where
+ * a placement is identified by its first cell: the coverage of a ship of size s
+ * is then the sum of s shifted copies of these arrays, added by a DensityAccumulator
+ * (vectorized when the Vector API is available).
+ * All the arrays are allocated once, so that a computation does not allocate anything.
+ * As an anytime strategy, each step counts the placements of one more ship.
+ */
+public class ProbabilityDensityEngine implements AnytimeStrategy {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Ordinals used to encode observations */
+    private static final int UNKNOWN = CellType.UNKNOWN.ordinal();
+    private static final int HIT = CellType.HIT.ordinal();
+
+    /** Accumulation used by default, selected at startup */
+    private static final DensityAccumulator DEFAULT_ACCUMULATOR = DensityAccumulator.select();
+
+    /** Board dimensions */
+    private final int rows, columns;
+
+    /** Adds the shifted copies of the legal start arrays */
+    private final DensityAccumulator accumulator;
+
+    /** Observed type of each cell, as a CellType ordinal */
+    private final byte[] observations;
+
+    /** Number of legal placements of each ship covering each cell */
+    private final int[][] shipCounts;
+
+    /** Number of legal placements of each ship */
+    private final int[] shipTotals;
+
+    /** Legal first cells of horizontal and vertical placements (1 if legal, 0 otherwise) */
+    private final int[] horizontalStarts, verticalStarts;
+
+    /** Remaining ships of the current anytime search */
+    private CellType[] shipTypes;
+    private int[] shipSizes;
+    private int shipCount;
+
+    /** Number of ships whose placements have been counted by the current anytime search */
+    private int countedShips;
+
+    /** Best cell found by the current anytime search, -1 if none */
+    private int bestCell;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor, with the accumulation selected at startup
+     * @param rows - number of rows
+     * @param columns - number of columns
+     * @param maxShips - maximum number of ships taken into account
+     */
+    public ProbabilityDensityEngine(int rows, int columns, int maxShips) {
+        this(rows, columns, maxShips, DEFAULT_ACCUMULATOR);
+    }
+
+    /**
+     * Constructor
+     * @param rows - number of rows
+     * @param columns - number of columns
+     * @param maxShips - maximum number of ships taken into account
+     * @param accumulator - accumulation of the placement counts
+     */
+    public ProbabilityDensityEngine(int rows, int columns, int maxShips, DensityAccumulator accumulator) {
+        this.rows = rows;
+        this.columns = columns;
+        this.accumulator = accumulator;
+        this.observations = new byte[rows * columns];
+        this.shipCounts = new int[maxShips][rows * columns];
+        this.shipTotals = new int[maxShips];
+        this.horizontalStarts = new int[rows * columns];
+        this.verticalStarts = new int[rows * columns];
+        this.bestCell = -1;
+        clear();
+    }
+
+    /**
+     * Forgets every observation
+     */
+    public final void clear() {
+        Arrays.fill(this.observations, (byte) UNKNOWN);
+    }
+
+    /**
+     * Computes the placement counts of every ship
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships (first elements of shipTypes and shipSizes)
+     */
+    public void computeCounts(CellType[] shipTypes, int[] shipSizes, int shipCount) {
+        for (int ship = 0; ship < shipCount; ship++) {
+            this.shipTotals[ship] = computeShipCounts(shipTypes[ship].ordinal(), shipSizes[ship],
+                                                      this.shipCounts[ship]);
+        }
+    }
+
+    /**
+     * Computes the placement counts, then searches for the UNKNOWN cell the most
+     * likely to contain a ship.
+     * The likelihood of a cell is the sum, over the remaining ships, of the fraction
+     * of the ship's legal placements covering the cell.
+     * @param shipTypes - types of the remaining ships
+     * @param shipSizes - sizes of the remaining ships
+     * @param shipCount - number of remaining ships
+     * @return the best cell identifier (the first one in case of a tie), -1 if no UNKNOWN cell is covered
+     */
+    public int findBestCell(CellType[] shipTypes, int[] shipSizes, int shipCount) {
+        computeCounts(shipTypes, shipSizes, shipCount);
+        return selectBestCell(shipCount);
+    }
+
+    @Override
+    public boolean improve(long deadline) {
+        if (this.countedShips == this.shipCount) {
+            return false;
+        }
+        int ship = this.countedShips++;
+        this.shipTotals[ship] = computeShipCounts(this.shipTypes[ship].ordinal(), this.shipSizes[ship],
+                                                  this.shipCounts[ship]);
+        this.bestCell = selectBestCell(this.countedShips);
+        return this.countedShips < this.shipCount;
+    }
+
+    /**
+     * @return true once the current anytime search has counted the placements of every ship
+     */
+    public boolean isComplete() {
+        return this.countedShips == this.shipCount;
+    }
+
+    @Override
+    public void start(BoardModel observations, CellType[] shipTypes, int[] shipSizes, int shipCount) {
+        load(observations);
+        this.shipTypes = shipTypes;
+        this.shipSizes = shipSizes;
+        this.shipCount = shipCount;
+        this.countedShips = 0;
+        this.bestCell = -1;
+    }
+
+    /**
+     * Copies every observation of a board
+     * @param boardModel - observation board, made of UNKNOWN, OCEAN, HIT and ship cells
+     */
+    public void load(BoardModel boardModel) {
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                this.observations[row * this.columns + column] =
+                        (byte) boardModel.getCellModel(row, column).getCellType().ordinal();
+            }
+        }
+    }
+
+    /**
+     * Records the observed type of a cell
+     * @param cellId - cell to deal with
+     * @param cellType - observed type
+     */
+    public void observe(int cellId, CellType cellType) {
+        this.observations[cellId] = (byte) cellType.ordinal();
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public DensityAccumulator getAccumulator() {
+        return this.accumulator;
+    }
+
+    @Override
+    public int getBestCell() {
+        return this.bestCell;
+    }
+
+    public int getShipCount(int ship, int cellId) {
+        return this.shipCounts[ship][cellId];
+    }
+
+    public int getShipTotal(int ship) {
+        return this.shipTotals[ship];
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Adds shifted copies of a legal start array to a count array
+     * @param starts - legal start array
+     * @param stride - distance between two consecutive cells of a placement
+     * @param size - ship size
+     * @param counts - count array to update
+     * @see computeShipCounts()
+     * @see DensityAccumulator
+     */
+    private void accumulate(int[] starts, int stride, int size, int[] counts) {
+        this.accumulator.accumulate(starts, stride, size, counts);
+    }
+
+    /**
+     * Fills the legal start arrays and the count array of one ship
+     * @param shipType - ordinal of the ship's cell type
+     * @param size - ship size
+     * @param counts - count array to fill
+     * @return the number of legal placements
+     * @see computeCounts()
+     */
+    private int computeShipCounts(int shipType, int size, int[] counts) {
+        /* Cells already known to belong to this ship must all be covered */
+        int ownCells = 0;
+        for (byte observation : this.observations) {
+            if (observation == shipType) {
+                ownCells++;
+            }
+        }
+
+        int total = 0;
+        for (int row = 0; row < this.rows; row++) {
+            total += fillLineStarts(row * this.columns, 1, this.columns, shipType, size,
+                                    ownCells, this.horizontalStarts);
+        }
+        for (int column = 0; column < this.columns; column++) {
+            total += fillLineStarts(column, this.columns, this.rows, shipType, size,
+                                    ownCells, this.verticalStarts);
+        }
+
+        Arrays.fill(counts, 0);
+        accumulate(this.horizontalStarts, 1, size, counts);
+        if (size > 1) {
+            accumulate(this.verticalStarts, this.columns, size, counts);
+        }
+        return (size > 1) ? total : total / 2;
+    }
+
+    /**
+     * Slides a ship-sized window along a line and marks its legal first cells
+     * @param first - identifier of the first cell of the line
+     * @param stride - distance between two consecutive cells of the line
+     * @param length - number of cells in the line
+     * @param shipType - ordinal of the ship's cell type
+     * @param size - ship size
+     * @param ownCells - number of cells already known to belong to the ship
+     * @param starts - legal start array to fill
+     * @return the number of legal placements along the line
+     * @see computeShipCounts()
+     */
+    private int fillLineStarts(int first, int stride, int length, int shipType, int size,
+                               int ownCells, int[] starts) {
+        int legal = 0;
+        int blocked = 0;
+        int own = 0;
+
+        for (int position = 0; position < length; position++) {
+            int cellId = first + position * stride;
+            starts[cellId] = 0;
+
+            /* The cell enters the window */
+            int observation = this.observations[cellId];
+            if (observation == shipType) {
+                own++;
+            }
+            else if (observation != UNKNOWN && observation != HIT) {
+                blocked++;
+            }
+
+            /* The cell which is now "size" positions behind leaves the window */
+            if (position >= size) {
+                int leaving = this.observations[cellId - size * stride];
+                if (leaving == shipType) {
+                    own--;
+                }
+                else if (leaving != UNKNOWN && leaving != HIT) {
+                    blocked--;
+                }
+            }
+
+            if (position >= size - 1 && blocked == 0 && own == ownCells) {
+                starts[cellId - (size - 1) * stride] = 1;
+                legal++;
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Searches for the UNKNOWN cell the most likely to contain a ship, from the counts of the first ships
+     * @param shipCount - number of ships taken into account
+     * @return the best cell identifier (the first one in case of a tie), -1 if no UNKNOWN cell is covered
+     * @see findBestCell()
+     */
+    private int selectBestCell(int shipCount) {
+        int bestCell = -1;
+        double bestScore = 0;
+        for (int cellId = 0; cellId < this.observations.length; cellId++) {
+            if (this.observations[cellId] != UNKNOWN) {
+                continue;
+            }
+            double score = 0;
+            for (int ship = 0; ship < shipCount; ship++) {
+                if (this.shipTotals[ship] > 0) {
+                    score += (double) this.shipCounts[ship][cellId] / this.shipTotals[ship];
+                }
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestCell = cellId;
+            }
+        }
+        return bestCell;
+    }
+}
@@ -0,0 +1,25 @@
+package battleship2D.ai;
+
+/**
+ * Density accumulation one cell at a time, available on every JVM
+ * @see DensityAccumulator
+ */
+public class ScalarDensityAccumulator implements DensityAccumulator {
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Shifting a horizontal start across the beginning of a row never reads a legal
+     * start, since a placement starting on the previous row would not fit inside it.
+     */
+    @Override
+    public void accumulate(int[] starts, int stride, int size, int[] counts) {
+        for (int k = 0; k < size; k++) {
+            int shift = k * stride;
+            for (int i = shift; i < counts.length; i++) {
+                counts[i] += starts[i - shift];
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package battleship2D.engine;
+
+import battleship2D.engine.GameEngine.ComputerDecision;
+import battleship2D.model.Coord2D;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Chooses the targets of the computer on a dedicated thread, so that the thread
+ * which requests them (e.g. the JavaFX Application Thread) never waits for the search.
+ * Each request has a deadline: if the search has not completed by then, it is cancelled
+ * and a fallback target, drawn when the request was made, is delivered instead.
+ * Targets are handed over through a callback executor (e.g. Platform::runLater),
+ * at most once per request; the results of cancelled or superseded requests are dropped.
+ * A search runs on a copy of the computer player, which replaces it only once its target
+ * is delivered: an abandoned search neither holds nor alters the computer player, and it is
+ * interrupted so that it stops at its next check.
+ * The search thread may also compute the next decision ahead while a missile flies.
+ * Once shut down, the scheduler ignores every request.
+ */
+public class ComputerTurnScheduler {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Game whose computer targets are searched */
+    private final GameEngine gameEngine;
+
+    /** Thread running the searches */
+    private final ExecutorService searchExecutor;
+
+    /** Thread enforcing the deadlines */
+    private final ScheduledExecutorService deadlineExecutor;
+
+    /** Executor running the callbacks */
+    private final Executor callbackExecutor;
+
+    /** Identifier of the current request, increased by each request and each cancellation */
+    private long request;
+
+    /** Search and deadline of the current request, null when there is none */
+    private Future<?> pendingSearch, pendingDeadline;
+
+    /** True once the threads have been stopped */
+    private boolean shutdown;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param gameEngine - game whose computer targets are searched
+     * @param callbackExecutor - executor running the callbacks, e.g. Platform::runLater
+     */
+    public ComputerTurnScheduler(GameEngine gameEngine, Executor callbackExecutor) {
+        this.gameEngine = gameEngine;
+        this.callbackExecutor = callbackExecutor;
+        this.searchExecutor = Executors.newSingleThreadExecutor(daemonThreads("computer-turn"));
+        this.deadlineExecutor = Executors.newSingleThreadScheduledExecutor(daemonThreads("computer-turn-deadline"));
+        this.request = 0;
+        this.shutdown = false;
+    }
+
+    /**
+     * Cancels the current request, if any: its callback will not be run
+     */
+    public synchronized void cancel() {
+        this.request++;
+        cancelPendingTasks();
+    }
+
+    /**
+     * Starts searching for the target of the next computer missile, cancelling the current request;
+     * nothing is done once the scheduler has been shut down
+     * @param milliseconds - time after which the search is abandoned for a fallback target
+     * @param onTarget - callback receiving the target, run by the callback executor
+     */
+    public synchronized void requestComputerTarget(long milliseconds, Consumer<Coord2D> onTarget) {
+        if (this.shutdown) {
+            return;
+        }
+        cancel();
+        long currentRequest = this.request;
+
+        /* Drawn before the search starts, so that it never waits for the search */
+        Coord2D fallbackTarget = this.gameEngine.findFallbackComputerTarget();
+
+        this.pendingSearch = this.searchExecutor.submit(() -> {
+            ComputerDecision decision = this.gameEngine.decideComputerTarget();
+            if (decision.getTarget() != null) {
+                deliver(currentRequest, decision.getTarget(), decision, onTarget);
+            }
+            else {
+                deliver(currentRequest, fallbackTarget, null, onTarget);
+            }
+        });
+        this.pendingDeadline = this.deadlineExecutor.schedule(() -> {
+            System.err.println("ComputerTurnScheduler::requestComputerTarget: deadline reached, fallback target used");
+            deliver(currentRequest, fallbackTarget, null, onTarget);
+        }, milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts computing ahead, on the search thread, the next computer target for each outcome
+     * of the computer missile in flight; the matching one is used once the missile is resolved.
+     * Nothing is done once the scheduler has been shut down.
+     * @param target - player cell targeted by the computer missile
+     * @see GameEngine#speculateComputerTurn(int, int)
+     */
+    public synchronized void speculate(Coord2D target) {
+        if (this.shutdown) {
+            return;
+        }
+        this.searchExecutor.execute(() -> this.gameEngine.speculateComputerTurn(target.getRow(), target.getColumn()));
+    }
+
+    /**
+     * Cancels the current request and stops the threads
+     */
+    public synchronized void shutdown() {
+        this.shutdown = true;
+        cancel();
+        this.searchExecutor.shutdownNow();
+        this.deadlineExecutor.shutdownNow();
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Cancels the search and the deadline of the current request
+     */
+    private void cancelPendingTasks() {
+        if (this.pendingSearch != null) {
+            this.pendingSearch.cancel(true);
+            this.pendingSearch = null;
+        }
+        if (this.pendingDeadline != null) {
+            this.pendingDeadline.cancel(false);
+            this.pendingDeadline = null;
+        }
+    }
+
+    /**
+     * @return a factory of daemon threads, which do not prevent the application from exiting
+     * @param name - name of the threads
+     */
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Hands a target over to the callback, unless the request has already been answered or cancelled
+     * @param answeredRequest - request answered
+     * @param target - target to deliver
+     * @param decision - decision of the search giving the target, adopted by the game; null for a fallback target
+     * @param onTarget - callback of the request
+     */
+    private synchronized void deliver(long answeredRequest, Coord2D target, ComputerDecision decision,
+                                      Consumer<Coord2D> onTarget) {
+        if (answeredRequest != this.request) {
+            return;
+        }
+        this.request++;
+        cancelPendingTasks();
+        if (decision != null) {
+            this.gameEngine.adoptComputerDecision(decision);
+        }
+        this.callbackExecutor.execute(() -> onTarget.accept(target));
+    }
+}
@@ -0,0 +1,443 @@
+package battleship2D.engine;
+
+import battleship2D.ai.ComputerPlayer;
+import battleship2D.ai.DecisionCache;
+import battleship2D.model.BoardModel;
+import battleship2D.model.CellModel;
+import battleship2D.model.CellType;
+import battleship2D.model.Coord2D;
+import battleship2D.model.Fleet;
+import battleship2D.model.Ship;
+import battleship2D.model.SkillLevel;
+import battleship2D.model.Turn;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.EnumMap;
+
+/**
+ * Rules of the game, independent of any user interface:
+ * places the computer fleet, resolves missiles, counts hits and destroyed ships,
+ * alternates turns and detects the end of the game.
+ * Each resolved missile is notified to the listeners ("gameEngineShot"),
+ * as well as the end of the game ("gameEngineOver").
+ * While a computer missile flies, the next computer decision may be computed ahead
+ * for each outcome of the missile (speculateComputerTurn()); the branch matching
+ * the actual outcome is then committed when the missile is resolved.
+ */
+public class GameEngine {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Board of the player, whose default type is OCEAN */
+    private final BoardModel playerBoardModel;
+
+    /** Board of the computer, whose default type is UNKNOWN */
+    private final BoardModel computerBoardModel;
+
+    /** Missile targets chooser of the computer side, replaced by a speculative branch when one is committed */
+    private volatile ComputerPlayer computerPlayer;
+
+    /** Missile targets chooser of the player side, null when the player chooses by hand */
+    private final ComputerPlayer autopilot;
+
+    /** Decisions computed ahead for the computer missile in flight, null if none */
+    private volatile Speculation speculation;
+
+    /** Next computer target, taken from the committed speculative branch, null if none */
+    private volatile Coord2D speculatedTarget;
+
+    /** Side expected to fire the next missile */
+    private Turn turn;
+
+    /** Side which has destroyed the whole adverse fleet, null while the game goes on */
+    private Turn winner;
+
+    /** Listeners management */
+    private final PropertyChangeSupport pcsListeners = new PropertyChangeSupport(this);
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor, with boards of the default size
+     * @param skillLevel - skill level for the computer
+     */
+    public GameEngine(SkillLevel skillLevel) {
+        this(skillLevel, null, BoardModel.BOARD_SIZE, BoardModel.BOARD_SIZE);
+    }
+
+    /**
+     * Constructor of a game where the player side is also played by the computer,
+     * with boards of the default size
+     * @param skillLevel - skill level for the computer
+     * @param playerSkillLevel - skill level for the player side
+     */
+    public GameEngine(SkillLevel skillLevel, SkillLevel playerSkillLevel) {
+        this(skillLevel, playerSkillLevel, BoardModel.BOARD_SIZE, BoardModel.BOARD_SIZE);
+    }
+
+    /**
+     * Constructor
+     * @param skillLevel - skill level for the computer
+     * @param playerSkillLevel - skill level for the player side, null when the player chooses by hand
+     * @param rows - number of rows of both boards
+     * @param columns - number of columns of both boards
+     */
+    public GameEngine(SkillLevel skillLevel, SkillLevel playerSkillLevel, int rows, int columns) {
+        this.playerBoardModel = new BoardModel(CellType.OCEAN, rows, columns);
+        this.computerBoardModel = new BoardModel(CellType.UNKNOWN, rows, columns);
+        this.computerPlayer = new ComputerPlayer(skillLevel, this.computerBoardModel.getFleet(), rows, columns);
+        this.autopilot = (playerSkillLevel == null) ? null
+                : new ComputerPlayer(playerSkillLevel, this.playerBoardModel.getFleet(), rows, columns);
+        this.turn = Turn.PLAYER;
+        this.winner = null;
+    }
+
+    /**
+     * Chooses the player cell targeted by the next computer missile
+     * @return the cell coordinates
+     */
+    public Coord2D findComputerTarget() {
+        Coord2D target = this.speculatedTarget;
+        if (target != null) {
+            this.speculatedTarget = null;
+            return target;
+        }
+        return this.computerPlayer.findMissileDestinationCell();
+    }
+
+    /**
+     * Chooses the player cell targeted by the next computer missile on a copy of the computer player,
+     * which is left untouched: the search may be abandoned at any time, e.g. for a fallback target
+     * @return the decision, to adopt once its target is the one fired
+     * @see adoptComputerDecision()
+     */
+    public ComputerDecision decideComputerTarget() {
+        Coord2D target = this.speculatedTarget;
+        if (target != null) {
+            this.speculatedTarget = null;
+            return new ComputerDecision(null, null, target);
+        }
+        ComputerPlayer origin = this.computerPlayer;
+        ComputerPlayer searcher = origin.copy();
+        return new ComputerDecision(origin, searcher, searcher.findMissileDestinationCell());
+    }
+
+    /**
+     * Replaces the computer player by the copy which has made a decision,
+     * unless the computer player has changed since the copy was made
+     * @param decision - decision whose target is about to be fired
+     * @see decideComputerTarget()
+     */
+    public void adoptComputerDecision(ComputerDecision decision) {
+        if (decision.searcher != null && this.computerPlayer == decision.origin) {
+            this.computerPlayer = decision.searcher;
+        }
+    }
+
+    /**
+     * Draws a random player cell not targeted yet, to replace a computer target found too late
+     * @return the cell coordinates
+     * @see ComputerTurnScheduler
+     */
+    public Coord2D findFallbackComputerTarget() {
+        return this.computerPlayer.findFallbackDestinationCell();
+    }
+
+    /**
+     * Chooses the computer cell targeted by the next player missile
+     * @pre the player side is played by the computer
+     * @return the cell coordinates
+     */
+    public Coord2D findPlayerTarget() {
+        return this.autopilot.findMissileDestinationCell();
+    }
+
+    /**
+     * Resolves a missile fired by the side whose turn it is,
+     * then gives the turn to the other side
+     * @param row - row of the targeted cell, in the board of the other side
+     * @param column - column of the targeted cell, in the board of the other side
+     * @return the outcome of the missile, null if the game is over
+     */
+    public ShotResult fire(int row, int column) {
+        if (isGameOver()) {
+            return null;
+        }
+        Turn shooter = this.turn;
+        BoardModel targetBoardModel = (shooter == Turn.PLAYER) ? this.computerBoardModel
+                                                              : this.playerBoardModel;
+        CellModel cellModel = targetBoardModel.getCellModel(row, column);
+        CellType previousCellType = cellModel.getCellType();
+        CellType observedCellType = previousCellType.isAShip() ? previousCellType : CellType.OCEAN;
+
+        /* A single lookup gives the ship and the part which have been hit */
+        Fleet fleet = targetBoardModel.getFleet();
+        Ship ship = null;
+        boolean shipDestroyed = false;
+        if (previousCellType.isAShip()) {
+            cellModel.setCellType(CellType.HIT);
+            ship = fleet.updateHits(cellModel.getId());
+            shipDestroyed = (ship != null) && fleet.isLastHitShipDestroyed();
+        }
+
+        /* The computer keeps a copy of what it has discovered */
+        ComputerPlayer shooterPlayer = (shooter == Turn.COMPUTER) ? this.computerPlayer : this.autopilot;
+        if (shooter == Turn.COMPUTER) {
+            Speculation pendingSpeculation = this.speculation;
+            this.speculation = null;
+            this.speculatedTarget = null;
+            if (! shipDestroyed && commitSpeculation(pendingSpeculation, row, column, observedCellType)) {
+                shooterPlayer = null;
+            }
+        }
+        if (shooterPlayer != null) {
+            shooterPlayer.recordShot(row, column, observedCellType);
+            if (shipDestroyed) {
+                shooterPlayer.recordDestroyedShip(ship);
+            }
+        }
+
+        ShotResult shotResult;
+        if (previousCellType.isAShip()) {
+            shotResult = new ShotResult(shooter, cellModel, previousCellType, ship,
+                                        shipDestroyed, fleet.isFleetDestroyed());
+        }
+        else {
+            if (previousCellType == CellType.UNKNOWN) {
+                cellModel.setCellType(CellType.OCEAN);
+            }
+            shotResult = new ShotResult(shooter, cellModel, previousCellType, null, false, false);
+        }
+
+        if (shotResult.isFleetDestroyed()) {
+            this.winner = shooter;
+        }
+        else {
+            this.turn = (shooter == Turn.PLAYER) ? Turn.COMPUTER : Turn.PLAYER;
+        }
+
+        this.pcsListeners.firePropertyChange("gameEngineShot", null, shotResult);
+        if (isGameOver()) {
+            this.pcsListeners.firePropertyChange("gameEngineOver", null, this.winner);
+        }
+        return shotResult;
+    }
+
+    /**
+     * @return true if a fleet has been completely destroyed
+     */
+    public boolean isGameOver() {
+        return this.winner != null;
+    }
+
+    /**
+     * Lets the computer choose its target and fires at it
+     * @return the outcome of the missile, null if the game is over
+     */
+    public ShotResult playComputerTurn() {
+        Coord2D coord2D = findComputerTarget();
+        return fire(coord2D.getRow(), coord2D.getColumn());
+    }
+
+    /**
+     * Lets the player side choose its target and fires at it
+     * @pre the player side is played by the computer
+     * @return the outcome of the missile, null if the game is over
+     */
+    public ShotResult playPlayerTurn() {
+        Coord2D coord2D = findPlayerTarget();
+        return fire(coord2D.getRow(), coord2D.getColumn());
+    }
+
+    /**
+     * Computes ahead the next computer decision for each outcome of the computer missile
+     * in flight: the ocean, or a hit on each player ship not destroyed yet (a destroyed
+     * ship reveals cells which cannot be guessed, so this outcome is not anticipated).
+     * May run on another thread; stops early once the missile has been resolved.
+     * Only the copies of the computer player are read: the boards may change meanwhile.
+     * @param row - row of the player cell targeted by the computer
+     * @param column - column of the player cell targeted by the computer
+     */
+    public void speculateComputerTurn(int row, int column) {
+        Speculation current = new Speculation(row, column);
+        this.speculation = current;
+        ComputerPlayer base = this.computerPlayer.copy();
+
+        /* Too late: the missile has already been resolved */
+        if (base.getPlayerBoardModelCopy().getCellModel(row, column).getCellType() != CellType.UNKNOWN) {
+            return;
+        }
+
+        /* The ships not destroyed yet, as known by the computer */
+        CellType[] shipTypes = base.findRemainingShipTypes();
+        int outcomeCount = shipTypes.length + 1;
+        for (int i = 0; i < outcomeCount && this.speculation == current; i++) {
+            CellType outcome = (i == 0) ? CellType.OCEAN : shipTypes[i - 1];
+            ComputerPlayer branch = (i < outcomeCount - 1) ? base.copy() : base;
+            branch.recordShot(row, column, outcome);
+            current.add(outcome, branch, branch.findMissileDestinationCell());
+        }
+    }
+
+    /**
+     * Places the player fleet at random locations, when no one places it by hand
+     * @return false if the fleet does not fit on the player board
+     */
+    public Boolean placePlayerShipsAtRandom() {
+        return this.computerPlayer.placeShipsOnBoardAtRandom(this.playerBoardModel);
+    }
+
+    /**
+     * Places the computer fleet at random locations and gives the first turn to the player
+     * @return false if the fleet does not fit on the computer board
+     */
+    public Boolean start() {
+        /* The player ships may have been placed by hand */
+        this.playerBoardModel.locateShips();
+        this.turn = Turn.PLAYER;
+        this.winner = null;
+        return this.computerPlayer.placeShipsOnBoardAtRandom(this.computerBoardModel);
+    }
+
+    /**
+     * Lets the computer players of this game share a cache of decisions
+     * @param decisionCache - cache to use, null to disable caching
+     */
+    public void setDecisionCache(DecisionCache decisionCache) {
+        this.computerPlayer.setDecisionCache(decisionCache);
+        if (this.autopilot != null) {
+            this.autopilot.setDecisionCache(decisionCache);
+        }
+    }
+
+    /*
+     * Property Change Listeners management
+     */
+    public void addPropertyChangeListener(PropertyChangeListener propertyChangeListener) {
+        this.pcsListeners.addPropertyChangeListener(propertyChangeListener);
+    }
+
+    public void removePropertyChangeListener (PropertyChangeListener propertyChangeListener) {
+        this.pcsListeners.removePropertyChangeListener(propertyChangeListener);
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public ComputerPlayer getAutopilot() {
+        return this.autopilot;
+    }
+
+    public BoardModel getComputerBoardModel() {
+        return this.computerBoardModel;
+    }
+
+    public ComputerPlayer getComputerPlayer() {
+        return this.computerPlayer;
+    }
+
+    public BoardModel getPlayerBoardModel() {
+        return this.playerBoardModel;
+    }
+
+    public Turn getTurn() {
+        return this.turn;
+    }
+
+    public Turn getWinner() {
+        return this.winner;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Replaces the computer player by the speculative branch matching the outcome of its missile
+     * @param pendingSpeculation - decisions computed ahead, null if none
+     * @param row - row of the targeted player cell
+     * @param column - column of the targeted player cell
+     * @param observedCellType - what the computer observes in the targeted cell
+     * @return true if a branch has been committed: it has already recorded the missile
+     * @see fire()
+     */
+    private boolean commitSpeculation(Speculation pendingSpeculation, int row, int column, CellType observedCellType) {
+        if (pendingSpeculation == null || pendingSpeculation.row != row || pendingSpeculation.column != column) {
+            return false;
+        }
+        Branch branch = pendingSpeculation.get(observedCellType);
+        if (branch == null || branch.target == null) {
+            return false;
+        }
+        this.computerPlayer = branch.computerPlayer;
+        this.speculatedTarget = branch.target;
+        return true;
+    }
+
+
+    /*=========================================================================*/
+    /* Inner classes                                                           */
+    /*=========================================================================*/
+
+    /**
+     * Target of the computer, chosen by a copy of the computer player
+     * @see decideComputerTarget()
+     */
+    public static final class ComputerDecision {
+        /** Computer player copied, and the copy which has chosen the target; null if nothing is to adopt */
+        private final ComputerPlayer origin, searcher;
+
+        /** Chosen target, null if none */
+        private final Coord2D target;
+
+        private ComputerDecision(ComputerPlayer origin, ComputerPlayer searcher, Coord2D target) {
+            this.origin = origin;
+            this.searcher = searcher;
+            this.target = target;
+        }
+
+        public Coord2D getTarget() {
+            return this.target;
+        }
+    }
+
+    /**
+     * Computer player after a hypothetical outcome of its missile, with the target it has chosen
+     */
+    private static final class Branch {
+        final ComputerPlayer computerPlayer;
+        final Coord2D target;
+
+        Branch(ComputerPlayer computerPlayer, Coord2D target) {
+            this.computerPlayer = computerPlayer;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Branches computed ahead for a computer missile, by observed outcome
+     */
+    private static final class Speculation {
+        final int row, column;
+        private final EnumMap<CellType, Branch> branches = new EnumMap<>(CellType.class);
+
+        Speculation(int row, int column) {
+            this.row = row;
+            this.column = column;
+        }
+
+        synchronized void add(CellType outcome, ComputerPlayer computerPlayer, Coord2D target) {
+            this.branches.put(outcome, new Branch(computerPlayer, target));
+        }
+
+        synchronized Branch get(CellType outcome) {
+            return this.branches.get(outcome);
+        }
+    }
+}
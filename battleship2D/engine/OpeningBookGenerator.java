@@ -0,0 +1,128 @@
+package battleship2D.engine;
+
+import battleship2D.ai.ComputerPlayer;
+import battleship2D.ai.OpeningBook;
+import battleship2D.model.BoardModel;
+import battleship2D.model.BoardSymmetry;
+import battleship2D.model.Coord2D;
+import battleship2D.model.SkillLevel;
+import battleship2D.model.Turn;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds the opening book offline, by self-play of the probability level against random fleets.
+ * Every state reached within the first shots of a game is recorded with the target chosen
+ * by the live strategy; the states reached often enough make the book.
+ */
+public class OpeningBookGenerator {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Board dimensions */
+    private final int rows, columns;
+
+    /** Number of shots of each side recorded per game */
+    private final int depth;
+
+    /** Target of each state reached, in the canonical frame, and the number of visits */
+    private final HashMap<Long, Integer> targets;
+    private final HashMap<Long, Integer> visits;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param rows - number of rows of the boards
+     * @param columns - number of columns of the boards
+     * @param depth - number of shots of each side recorded per game
+     */
+    public OpeningBookGenerator(int rows, int columns, int depth) {
+        this.rows = rows;
+        this.columns = columns;
+        this.depth = depth;
+        this.targets = new HashMap<>();
+        this.visits = new HashMap<>();
+    }
+
+    /**
+     * Usage: OpeningBookGenerator [games [depth [minimumVisits [file]]]]
+     * @param args - command line arguments
+     * @throws IOException if the book cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int games = (args.length > 0) ? Integer.parseInt(args[0]) : 20000;
+        int depth = (args.length > 1) ? Integer.parseInt(args[1]) : 12;
+        int minimumVisits = (args.length > 2) ? Integer.parseInt(args[2]) : 4;
+        String file = (args.length > 3) ? args[3] : "battleship2D/data/openingBook.bin";
+
+        OpeningBookGenerator generator = new OpeningBookGenerator(BoardModel.BOARD_SIZE, BoardModel.BOARD_SIZE, depth);
+        for (int game = 0; game < games; game++) {
+            generator.playGame();
+        }
+        OpeningBook openingBook = generator.build(minimumVisits);
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            openingBook.write(outputStream);
+        }
+        System.out.printf("%d states reached, %d written to %s%n", generator.targets.size(), openingBook.size(), file);
+    }
+
+    /**
+     * @return the book made of the states reached at least a given number of times
+     * @param minimumVisits - minimum number of visits of a state
+     */
+    public OpeningBook build(int minimumVisits) {
+        TreeMap<Long, Integer> entries = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : this.visits.entrySet()) {
+            if (entry.getValue() >= minimumVisits) {
+                entries.put(entry.getKey(), this.targets.get(entry.getKey()));
+            }
+        }
+
+        long[] keys = new long[entries.size()];
+        int[] cellIds = new int[entries.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : entries.entrySet()) {
+            keys[i] = entry.getKey();
+            cellIds[i] = entry.getValue();
+            i++;
+        }
+        return new OpeningBook(this.rows, this.columns, keys, cellIds);
+    }
+
+    /**
+     * Plays a game between two probability levels, recording the states of their first shots
+     */
+    public void playGame() {
+        GameEngine gameEngine = new GameEngine(SkillLevel.PROBABILITY, SkillLevel.PROBABILITY, this.rows, this.columns);
+        gameEngine.getComputerPlayer().setOpeningBook(null);
+        gameEngine.getAutopilot().setOpeningBook(null);
+        if (! gameEngine.placePlayerShipsAtRandom() || ! gameEngine.start()) {
+            throw new IllegalStateException("OpeningBookGenerator::playGame: the fleet does not fit on the board");
+        }
+
+        for (int shot = 0; shot < 2 * this.depth && ! gameEngine.isGameOver(); shot++) {
+            boolean isPlayerTurn = (gameEngine.getTurn() == Turn.PLAYER);
+            ComputerPlayer computerPlayer = isPlayerTurn ? gameEngine.getAutopilot() : gameEngine.getComputerPlayer();
+
+            BoardModel observations = computerPlayer.getPlayerBoardModelCopy();
+            int symmetry = observations.canonicalSymmetry();
+            long key = computerPlayer.canonicalStateKey();
+
+            Coord2D target = computerPlayer.findMissileDestinationCell();
+            int cellId = target.getRow() * this.columns + target.getColumn();
+            this.targets.putIfAbsent(key, BoardSymmetry.transform(symmetry, cellId, this.rows, this.columns));
+            this.visits.merge(key, 1, Integer::sum);
+
+            gameEngine.fire(target.getRow(), target.getColumn());
+        }
+    }
+}
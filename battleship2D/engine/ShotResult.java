@@ -0,0 +1,93 @@
+package battleship2D.engine;
+
+import battleship2D.model.CellModel;
+import battleship2D.model.CellType;
+import battleship2D.model.Ship;
+import battleship2D.model.Turn;
+
+/**
+ * Outcome of a missile resolved by the game engine
+ */
+public class ShotResult {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Side which has fired the missile */
+    private final Turn shooter;
+
+    /** Targeted cell, in the board of the other side */
+    private final CellModel cellModel;
+
+    /** Type of the targeted cell before the missile reached it */
+    private final CellType previousCellType;
+
+    /** Ship hit by the missile, null if the missile fell into the ocean.
+     * Once destroyed, the ship gives all the cells it occupied. */
+    private final Ship ship;
+
+    /** True if the ship hit has been destroyed by this missile */
+    private final boolean shipDestroyed;
+
+    /** True if the whole fleet of the target side has been destroyed by this missile */
+    private final boolean fleetDestroyed;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param shooter - side which has fired the missile
+     * @param cellModel - targeted cell
+     * @param previousCellType - type of the targeted cell before the missile reached it
+     * @param ship - ship hit by the missile, null if none
+     * @param shipDestroyed - true if the ship hit has been destroyed
+     * @param fleetDestroyed - true if the whole target fleet has been destroyed
+     */
+    public ShotResult(Turn shooter, CellModel cellModel, CellType previousCellType,
+                      Ship ship, boolean shipDestroyed, boolean fleetDestroyed) {
+        this.shooter = shooter;
+        this.cellModel = cellModel;
+        this.previousCellType = previousCellType;
+        this.ship = ship;
+        this.shipDestroyed = shipDestroyed;
+        this.fleetDestroyed = fleetDestroyed;
+    }
+
+    /**
+     * @return true if the missile has hit a ship
+     */
+    public boolean isHit() {
+        return this.ship != null;
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public CellModel getCellModel() {
+        return this.cellModel;
+    }
+
+    public CellType getPreviousCellType() {
+        return this.previousCellType;
+    }
+
+    public Ship getShip() {
+        return this.ship;
+    }
+
+    public Turn getShooter() {
+        return this.shooter;
+    }
+
+    public boolean isFleetDestroyed() {
+        return this.fleetDestroyed;
+    }
+
+    public boolean isShipDestroyed() {
+        return this.shipDestroyed;
+    }
+}
@@ -0,0 +1,216 @@
+package battleship2D.engine;
+
+import battleship2D.ai.DecisionCache;
+import battleship2D.model.BoardModel;
+import battleship2D.model.Coord2D;
+import battleship2D.model.SkillLevel;
+import battleship2D.model.Turn;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many computer versus computer games between two skill levels, on several threads.
+ * Games are partitioned into contiguous ranges, one per worker: each game has its own
+ * engine, so that workers share nothing but the lock-free accumulators of the results.
+ * Each worker has its own cache of decisions, reused from one of its games to the next.
+ * Contestants take turns on the player side, which fires first, game after game.
+ */
+public class Tournament {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Maximum number of decisions kept by a worker */
+    private static final int DECISION_CACHE_CAPACITY = 1 << 16;
+
+    /** Skill levels of both contestants */
+    private final SkillLevel[] skillLevels;
+
+    /** Board dimensions of every game */
+    private final int rows, columns;
+
+    /** Number of games to play */
+    private final int games;
+
+    /** Number of workers */
+    private final int threads;
+
+    /** Results, updated while the games are played */
+    private final TournamentResults results;
+
+    /** Decisions of each worker, shared by its games: the same observations recur from game to game */
+    private final DecisionCache[] decisionCaches;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor, with boards of the default size
+     * @param firstSkillLevel - skill level of contestant 0
+     * @param secondSkillLevel - skill level of contestant 1
+     * @param games - number of games to play
+     * @param threads - number of workers
+     */
+    public Tournament(SkillLevel firstSkillLevel, SkillLevel secondSkillLevel, int games, int threads) {
+        this(firstSkillLevel, secondSkillLevel, games, threads, BoardModel.BOARD_SIZE, BoardModel.BOARD_SIZE);
+    }
+
+    /**
+     * Constructor. Tournaments on boards of different sizes may run at the same time.
+     * @param firstSkillLevel - skill level of contestant 0
+     * @param secondSkillLevel - skill level of contestant 1
+     * @param games - number of games to play
+     * @param threads - number of workers
+     * @param rows - number of rows of the boards
+     * @param columns - number of columns of the boards
+     */
+    public Tournament(SkillLevel firstSkillLevel, SkillLevel secondSkillLevel, int games, int threads,
+                      int rows, int columns) {
+        this.skillLevels = new SkillLevel[] { firstSkillLevel, secondSkillLevel };
+        this.rows = rows;
+        this.columns = columns;
+        this.games = games;
+        this.threads = Math.max(1, threads);
+        this.results = new TournamentResults(firstSkillLevel, secondSkillLevel, rows * columns);
+        this.decisionCaches = new DecisionCache[this.threads];
+    }
+
+    /**
+     * Usage: Tournament [firstSkillLevel secondSkillLevel [games [threads [rows [columns]]]]]
+     * @param args - command line arguments
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        SkillLevel firstSkillLevel = (args.length > 1) ? SkillLevel.valueOf(args[0]) : SkillLevel.EXPERT;
+        SkillLevel secondSkillLevel = (args.length > 1) ? SkillLevel.valueOf(args[1]) : SkillLevel.PROBABILITY;
+        int games = (args.length > 2) ? Integer.parseInt(args[2]) : 1000;
+        int threads = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int rows = (args.length > 4) ? Integer.parseInt(args[4]) : BoardModel.BOARD_SIZE;
+        int columns = (args.length > 5) ? Integer.parseInt(args[5]) : rows;
+
+        Tournament tournament = new Tournament(firstSkillLevel, secondSkillLevel, games, threads, rows, columns);
+        long start = System.nanoTime();
+        tournament.run();
+        long elapsed = System.nanoTime() - start;
+
+        tournament.getResults().display();
+        long hits = 0;
+        long lookups = 0;
+        for (DecisionCache decisionCache : tournament.getDecisionCaches()) {
+            hits += decisionCache.getHits();
+            lookups += decisionCache.getLookups();
+        }
+        System.out.printf("Decision caches: %d hits out of %d lookups%n", hits, lookups);
+        System.out.printf("%d games in %.2f s on %d threads%n", games, elapsed / 1e9, threads);
+    }
+
+    /**
+     * Plays every game and waits for the workers to finish
+     * @return the results
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public TournamentResults run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        try {
+            ArrayList<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < this.threads; worker++) {
+                int firstGame = (int) ((long) this.games * worker / this.threads);
+                int lastGame = (int) ((long) this.games * (worker + 1) / this.threads);
+                DecisionCache decisionCache = new DecisionCache(DECISION_CACHE_CAPACITY);
+                this.decisionCaches[worker] = decisionCache;
+                workers.add(executor.submit(() -> playGames(firstGame, lastGame, decisionCache)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        catch (ExecutionException ex) {
+            throw new IllegalStateException("Tournament::run: a game has failed", ex.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return this.results;
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public DecisionCache[] getDecisionCaches() {
+        return this.decisionCaches;
+    }
+
+    public TournamentResults getResults() {
+        return this.results;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Plays a single game
+     * @param game - game index, which determines the side of each contestant
+     * @param decisionCache - decisions of the calling worker
+     * @see playGames()
+     */
+    private void playGame(int game, DecisionCache decisionCache) {
+        /* Contestant on the player side, which fires first */
+        int playerContestant = game % 2;
+        int computerContestant = 1 - playerContestant;
+
+        GameEngine gameEngine = new GameEngine(this.skillLevels[computerContestant],
+                                               this.skillLevels[playerContestant], this.rows, this.columns);
+        gameEngine.setDecisionCache(decisionCache);
+        if (! gameEngine.placePlayerShipsAtRandom() || ! gameEngine.start()) {
+            throw new IllegalStateException("Tournament::playGame: the fleet does not fit on the board");
+        }
+
+        int playerShots = 0;
+        int computerShots = 0;
+        while (! gameEngine.isGameOver()) {
+            boolean isPlayerTurn = (gameEngine.getTurn() == Turn.PLAYER);
+
+            long start = System.nanoTime();
+            Coord2D target = isPlayerTurn ? gameEngine.findPlayerTarget() : gameEngine.findComputerTarget();
+            long elapsed = System.nanoTime() - start;
+
+            gameEngine.fire(target.getRow(), target.getColumn());
+            if (isPlayerTurn) {
+                this.results.recordDecision(playerContestant, elapsed);
+                playerShots++;
+            }
+            else {
+                this.results.recordDecision(computerContestant, elapsed);
+                computerShots++;
+            }
+        }
+
+        if (gameEngine.getWinner() == Turn.PLAYER) {
+            this.results.recordGame(playerContestant, playerShots);
+        }
+        else {
+            this.results.recordGame(computerContestant, computerShots);
+        }
+    }
+
+    /**
+     * Plays a range of games, on the calling worker
+     * @param firstGame - index of the first game
+     * @param lastGame - index following the last game
+     * @param decisionCache - decisions of the calling worker, shared by its games only
+     * @see run()
+     */
+    private void playGames(int firstGame, int lastGame, DecisionCache decisionCache) {
+        for (int game = firstGame; game < lastGame && ! Thread.currentThread().isInterrupted(); game++) {
+            playGame(game, decisionCache);
+        }
+    }
+}
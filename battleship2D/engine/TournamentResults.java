@@ -0,0 +1,158 @@
+package battleship2D.engine;
+
+import battleship2D.model.SkillLevel;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a tournament between two skill levels.
+ * Every counter is a lock-free accumulator: the workers playing the games
+ * record their results concurrently, without any shared lock.
+ * Contestants are identified by their index (0 or 1).
+ */
+public class TournamentResults {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Skill levels of both contestants */
+    private final SkillLevel[] skillLevels;
+
+    /** Number of games played */
+    private final LongAdder games;
+
+    /** Games won by each contestant */
+    private final LongAdder[] wins;
+
+    /** Missiles fired by each contestant in the games it has won */
+    private final LongAdder[] shotsToWin;
+
+    /** Number of games won after a given number of missiles, indexed by contestant */
+    private final AtomicLongArray[] shotsToWinHistograms;
+
+    /** Number of targets chosen by each contestant, and the time spent choosing them (ns) */
+    private final LongAdder[] decisions;
+    private final LongAdder[] decisionNanos;
+
+    /** Longest time spent choosing a single target by each contestant (ns) */
+    private final LongAccumulator[] maxDecisionNanos;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param firstSkillLevel - skill level of contestant 0
+     * @param secondSkillLevel - skill level of contestant 1
+     * @param maxShots - largest number of missiles a game may last for one contestant
+     */
+    public TournamentResults(SkillLevel firstSkillLevel, SkillLevel secondSkillLevel, int maxShots) {
+        this.skillLevels = new SkillLevel[] { firstSkillLevel, secondSkillLevel };
+        this.games = new LongAdder();
+        this.wins = new LongAdder[2];
+        this.shotsToWin = new LongAdder[2];
+        this.shotsToWinHistograms = new AtomicLongArray[2];
+        this.decisions = new LongAdder[2];
+        this.decisionNanos = new LongAdder[2];
+        this.maxDecisionNanos = new LongAccumulator[2];
+
+        for (int contestant = 0; contestant < 2; contestant++) {
+            this.wins[contestant] = new LongAdder();
+            this.shotsToWin[contestant] = new LongAdder();
+            this.shotsToWinHistograms[contestant] = new AtomicLongArray(maxShots + 1);
+            this.decisions[contestant] = new LongAdder();
+            this.decisionNanos[contestant] = new LongAdder();
+            this.maxDecisionNanos[contestant] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    /**
+     * Displays a summary of the results
+     */
+    public void display() {
+        System.out.println("Games played: " + this.games.sum());
+        for (int contestant = 0; contestant < 2; contestant++) {
+            long wonGames = this.wins[contestant].sum();
+            long decisionCount = this.decisions[contestant].sum();
+            System.out.printf("[%s] wins: %d (%.1f%%) - average shots to win: %.2f"
+                              + " - average decision: %.1f us - longest decision: %.1f us%n",
+                              this.skillLevels[contestant], wonGames,
+                              (this.games.sum() > 0) ? 100.0 * wonGames / this.games.sum() : 0.0,
+                              averageShotsToWin(contestant),
+                              (decisionCount > 0) ? this.decisionNanos[contestant].sum() / 1000.0 / decisionCount : 0.0,
+                              this.maxDecisionNanos[contestant].get() / 1000.0);
+        }
+    }
+
+    /**
+     * @return the average number of missiles fired by a contestant in the games it has won
+     * @param contestant - contestant index
+     */
+    public double averageShotsToWin(int contestant) {
+        long wonGames = this.wins[contestant].sum();
+        return (wonGames > 0) ? (double) this.shotsToWin[contestant].sum() / wonGames : 0.0;
+    }
+
+    /**
+     * Records the time spent by a contestant to choose a target
+     * @param contestant - contestant index
+     * @param nanos - duration of the decision
+     */
+    public void recordDecision(int contestant, long nanos) {
+        this.decisions[contestant].increment();
+        this.decisionNanos[contestant].add(nanos);
+        this.maxDecisionNanos[contestant].accumulate(nanos);
+    }
+
+    /**
+     * Records the end of a game
+     * @param winner - index of the winning contestant
+     * @param shots - number of missiles fired by the winner
+     */
+    public void recordGame(int winner, int shots) {
+        this.games.increment();
+        this.wins[winner].increment();
+        this.shotsToWin[winner].add(shots);
+        this.shotsToWinHistograms[winner].incrementAndGet(Math.min(shots, this.shotsToWinHistograms[winner].length() - 1));
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public long getDecisions(int contestant) {
+        return this.decisions[contestant].sum();
+    }
+
+    public long getDecisionNanos(int contestant) {
+        return this.decisionNanos[contestant].sum();
+    }
+
+    public long getGames() {
+        return this.games.sum();
+    }
+
+    public long getMaxDecisionNanos(int contestant) {
+        return this.maxDecisionNanos[contestant].get();
+    }
+
+    public SkillLevel getSkillLevel(int contestant) {
+        return this.skillLevels[contestant];
+    }
+
+    /**
+     * @return the number of games won by a contestant after a given number of missiles
+     * @param contestant - contestant index
+     * @param shots - number of missiles
+     */
+    public long getShotsToWinCount(int contestant, int shots) {
+        return this.shotsToWinHistograms[contestant].get(shots);
+    }
+
+    public long getWins(int contestant) {
+        return this.wins[contestant].sum();
+    }
+}
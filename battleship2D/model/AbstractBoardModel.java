@@ -0,0 +1,218 @@
+package battleship2D.model;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Base of the boards for headless play, which identify cells with integers
+ * instead of CellModel objects. Subclasses choose how cell types are stored;
+ * the cell identifiers are computed the same way as in BoardModel.cellCoords().
+ * A board only owns its cells: the fleet is created on first use, and the random
+ * choices are drawn from the generator of the current thread, so that batch jobs
+ * keeping many boards alive do not keep as many helper objects.
+ */
+public abstract class AbstractBoardModel {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Board dimensions */
+    protected final int rows, columns;
+
+    /** Default cell type for board cells */
+    protected final CellType defaultCellType;
+
+    /** Fleet of ships to place on the board, null until it is first requested */
+    private Fleet fleet;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param cellType - default cell type for every board cell
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    protected AbstractBoardModel(CellType cellType, int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.defaultCellType = cellType;
+        this.fleet = null;
+    }
+
+    /**
+     * Searches for the cell adjacent to another along cardinal directions
+     * @param cellId - cell to deal with
+     * @param direction - direction to check
+     * @return the adjacent cell identifier if it exists, -1 otherwise
+     */
+    public int adjacentCell(int cellId, Direction direction) {
+        return adjacentCell(cellId, direction, 1);
+    }
+
+    /**
+     * Searches for the cell adjacent to another along cardinal directions
+     * @param cellId - cell to deal with
+     * @param direction - direction to check
+     * @param step - the number of cells to "jump" with respect to cellId
+     * @return the adjacent cell identifier if it exists, -1 otherwise
+     * @see BoardModel#adjacentCell(CellModel, Direction, int)
+     */
+    public int adjacentCell(int cellId, Direction direction, int step) {
+        int row = cellId / this.columns;
+        int column = cellId % this.columns;
+
+        /* Same orientation as BoardModel: rows correspond to left-right direction,
+            columns correspond to up-bottom directions */
+        switch (direction) {
+            case NORTH:
+                column = column - step;
+                break;
+            case WEST:
+                row = row - step;
+                break;
+            case SOUTH:
+                column = column + step;
+                break;
+            case EAST:
+                row = row + step;
+                break;
+            default:
+                break;
+        }
+        if (row >= 0 && row < this.rows && column >= 0 && column < this.columns) {
+            return cellId(row, column);
+        }
+        return -1;
+    }
+
+    /**
+     * @return the position of a cell in the board
+     * @param cellId - the cell to deal with
+     */
+    public Coord2D cellCoords(int cellId) {
+        return new Coord2D(cellId / this.columns, cellId % this.columns);
+    }
+
+    /**
+     * @return the identifier of the cell located at (row, column)
+     * @param row - row coordinate
+     * @param column - column coordinate
+     */
+    public int cellId(int row, int column) {
+        return row * this.columns + column;
+    }
+
+    /**
+     * @return the number of cells of a given type
+     * @param cellType - type to count
+     */
+    public abstract int countCellsOfType(CellType cellType);
+
+    /**
+     * Displays board's contents
+     */
+    public void display() {
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                int cellId = cellId(row, column);
+                System.out.print("[" + cellId + " - " + getCellType(cellId).getDescription() + "], ");
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * @return the first cell of a specific type, in row order, -1 otherwise
+     * @param cellType - type to deal with
+     */
+    public abstract int findFirstCellOfType(CellType cellType);
+
+    /**
+     * Checks whether a cell is of a given type
+     * @param cellId - cell to deal with
+     * @param cellType - the type to compare with the cell's
+     * @return true if the cell type is the same as cellType
+     */
+    public boolean isCellOfType(int cellId, CellType cellType) {
+        return getCellType(cellId) == cellType;
+    }
+
+    /**
+     * @return true if a specific kind of cell is currenlty located on the board
+     * @param cellType - type of the cell to test
+     */
+    public boolean isCellTypeInside(CellType cellType) {
+        return countCellsOfType(cellType) > 0;
+    }
+
+    /**
+     * @return a randomly selected cell identifier, -1 if there is no matching cell
+     * @param cellType - type of the cell to search
+     * @param isCellType - determines whether the type of the cell to search for is equal to cellType or not
+     */
+    public abstract int randomCell(CellType cellType, boolean isCellType);
+
+    /**
+     * Replaces a set of cell types with another one
+     * @param oldCellType - type to replace
+     * @param newCellType - new type to set
+     */
+    public abstract void replaceAll(CellType oldCellType, CellType newCellType);
+
+    /**
+     * Resets board's contents to default value
+     * @param cellType - default value
+     */
+    public abstract void reset(CellType cellType);
+
+    /*
+     * Getters / Setters
+     */
+
+    public abstract CellType getCellType(int cellId);
+
+    public abstract void setCellType(int cellId, CellType cellType);
+
+    public int getColumns() {
+        return this.columns;
+    }
+
+    public CellType getDefaultCellType() {
+        return this.defaultCellType;
+    }
+
+    public Fleet getFleet() {
+        if (this.fleet == null) {
+            this.fleet = newFleet();
+        }
+        return this.fleet;
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+
+
+    /*=========================================================================*/
+    /* Protected methods                                                       */
+    /*=========================================================================*/
+
+    /**
+     * @return a new fleet for this board, whose ship parts are indexed by cell
+     * @see getFleet()
+     */
+    protected Fleet newFleet() {
+        return new Fleet();
+    }
+
+    /**
+     * @return the random generator of randomCell(), shared by every board used by the current thread
+     */
+    protected Random generator() {
+        return ThreadLocalRandom.current();
+    }
+}
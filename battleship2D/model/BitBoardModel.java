@@ -0,0 +1,255 @@
+package battleship2D.model;
+
+import java.util.Arrays;
+
+/**
+ * Compact board for headless play: instead of one CellModel per cell,
+ * each CellType is stored as a packed bitset layer (bit i is set when
+ * cell i is of that type). A 10x10 board takes two longs per layer.
+ * Cell identifiers are computed the same way as in BoardModel.cellCoords().
+ */
+public class BitBoardModel extends AbstractBoardModel {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Number of bits stored in a bitset word */
+    private static final int WORD_SIZE = 64;
+
+    /** Number of random draws made by randomCell() before selecting amongst the matching cells */
+    private static final int MAX_RANDOM_DRAWS = 8;
+
+    /** Number of words in each layer */
+    private final int words;
+
+    /** One bitset per cell type, indexed with CellType.ordinal() */
+    private final long[][] layers;
+
+    /** Number of cells of each type, indexed with CellType.ordinal() */
+    private final int[] counts;
+
+    /** Neighbours of every cell, shared with the boards of the same size */
+    private final NeighborTable neighborTable;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor, with the default board size
+     * @param cellType - default cell type for every board cell
+     */
+    public BitBoardModel(CellType cellType) {
+        this(cellType, BoardModel.BOARD_SIZE, BoardModel.BOARD_SIZE);
+    }
+
+    /**
+     * Constructor
+     * @param cellType - default cell type for every board cell
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public BitBoardModel(CellType cellType, int rows, int columns) {
+        super(cellType, rows, columns);
+        this.words = (rows * columns + WORD_SIZE - 1) / WORD_SIZE;
+        this.layers = new long[CellType.values().length][this.words];
+        this.counts = new int[CellType.values().length];
+        this.neighborTable = NeighborTable.forSize(rows, columns);
+
+        reset(this.defaultCellType);
+    }
+
+    /**
+     * Searches for the cell adjacent to another along cardinal directions
+     * @param cellId - cell to deal with
+     * @param direction - direction to check
+     * @return the adjacent cell identifier if it exists, -1 otherwise
+     */
+    @Override
+    public int adjacentCell(int cellId, Direction direction) {
+        return this.neighborTable.neighbor(cellId, direction);
+    }
+
+    /**
+     * Searches for the cell adjacent to another along cardinal directions
+     * @param cellId - cell to deal with
+     * @param direction - direction to check
+     * @param step - the number of cells to "jump" with respect to cellId
+     * @return the adjacent cell identifier if it exists, -1 otherwise
+     * @see BoardModel#adjacentCell(CellModel, Direction, int)
+     */
+    @Override
+    public int adjacentCell(int cellId, Direction direction, int step) {
+        return this.neighborTable.neighbor(cellId, direction, step);
+    }
+
+    /**
+     * @return the number of cells of a given type
+     * @param cellType - type to count
+     */
+    @Override
+    public int countCellsOfType(CellType cellType) {
+        return this.counts[cellType.ordinal()];
+    }
+
+    /**
+     * @return the first cell of a specific type, in row order, -1 otherwise
+     * @param cellType - type to deal with
+     */
+    @Override
+    public int findFirstCellOfType(CellType cellType) {
+        long[] layer = this.layers[cellType.ordinal()];
+        for (int i = 0; i < this.words; i++) {
+            if (layer[i] != 0) {
+                return i * WORD_SIZE + Long.numberOfTrailingZeros(layer[i]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether a cell is of a given type
+     * @param cellId - cell to deal with
+     * @param cellType - the type to compare with the cell's
+     * @return true if the cell type is the same as cellType
+     */
+    @Override
+    public boolean isCellOfType(int cellId, CellType cellType) {
+        return (this.layers[cellType.ordinal()][cellId / WORD_SIZE] & (1L << cellId)) != 0;
+    }
+
+    /**
+     * @return true if a specific kind of cell is currenlty located on the board
+     * @param cellType - type of the cell to test
+     */
+    @Override
+    public boolean isCellTypeInside(CellType cellType) {
+        return findFirstCellOfType(cellType) >= 0;
+    }
+
+    /**
+     * @return a randomly selected cell identifier, -1 if there is no matching cell
+     * @param cellType - type of the cell to search
+     * @param isCellType - determines whether the type of the cell to search for is equal to cellType or not
+     */
+    @Override
+    public int randomCell(CellType cellType, boolean isCellType) {
+        long[] layer = this.layers[cellType.ordinal()];
+
+        /* Matching cells usually cover most of the board: a few draws avoid counting them */
+        for (int draw = 0; draw < MAX_RANDOM_DRAWS; draw++) {
+            int cellId = generator().nextInt(this.rows * this.columns);
+            if (((layer[cellId / WORD_SIZE] >>> cellId) & 1L) == (isCellType ? 1L : 0L)) {
+                return cellId;
+            }
+        }
+
+        int count = countCellsOfType(cellType);
+        if (! isCellType) {
+            count = this.rows * this.columns - count;
+        }
+        if (count == 0) {
+            return -1;
+        }
+
+        /* Selects the n-th matching bit */
+        int n = generator().nextInt(count);
+        for (int i = 0; i < this.words; i++) {
+            long word = isCellType ? layer[i] : (~layer[i] & wordMask(i));
+            int bits = Long.bitCount(word);
+            if (n < bits) {
+                for (; n > 0; n--) {
+                    word &= word - 1;
+                }
+                return i * WORD_SIZE + Long.numberOfTrailingZeros(word);
+            }
+            n -= bits;
+        }
+        return -1;
+    }
+
+    /**
+     * Replaces a set of cell types with another one
+     * @param oldCellType - type to replace
+     * @param newCellType - new type to set
+     */
+    @Override
+    public void replaceAll(CellType oldCellType,
+                           CellType newCellType) {
+        if (oldCellType == newCellType) {
+            return;
+        }
+        long[] oldLayer = this.layers[oldCellType.ordinal()];
+        long[] newLayer = this.layers[newCellType.ordinal()];
+        for (int i = 0; i < this.words; i++) {
+            newLayer[i] |= oldLayer[i];
+            oldLayer[i] = 0L;
+        }
+        this.counts[newCellType.ordinal()] += this.counts[oldCellType.ordinal()];
+        this.counts[oldCellType.ordinal()] = 0;
+    }
+
+    /**
+     * Resets board's contents to default value
+     * @param cellType - default value
+     */
+    @Override
+    public void reset(CellType cellType) {
+        for (long[] layer : this.layers) {
+            Arrays.fill(layer, 0L);
+        }
+        long[] layer = this.layers[cellType.ordinal()];
+        for (int i = 0; i < this.words; i++) {
+            layer[i] = wordMask(i);
+        }
+        Arrays.fill(this.counts, 0);
+        this.counts[cellType.ordinal()] = this.rows * this.columns;
+    }
+
+
+    /*
+     * Getters / Setters
+     */
+
+    @Override
+    public CellType getCellType(int cellId) {
+        int word = cellId / WORD_SIZE;
+        long bit = 1L << cellId;
+        for (CellType cellType : CellType.values()) {
+            if ((this.layers[cellType.ordinal()][word] & bit) != 0) {
+                return cellType;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void setCellType(int cellId, CellType cellType) {
+        int word = cellId / WORD_SIZE;
+        long bit = 1L << cellId;
+        for (int type = 0; type < this.layers.length; type++) {
+            if ((this.layers[type][word] & bit) != 0) {
+                this.layers[type][word] &= ~bit;
+                this.counts[type]--;
+            }
+        }
+        this.layers[cellType.ordinal()][word] |= bit;
+        this.counts[cellType.ordinal()]++;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * @return the bits of a layer word that match actual board cells
+     * (the last word of a layer may be partially used)
+     * @param word - index of the word
+     */
+    private long wordMask(int word) {
+        int remaining = this.rows * this.columns - word * WORD_SIZE;
+        return (remaining >= WORD_SIZE) ? -1L : (1L << remaining) - 1;
+    }
+}
@@ -1,6 +1,7 @@
 package battleship2D.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
 
 /**
@@ -12,14 +13,36 @@ public class BoardModel {
     /* Members                                                                 */       
     /*=========================================================================*/
     
-    /** Game board size */
-    public static int BOARD_SIZE = 10;
+    /** Default game board size, in rows and in columns */
+    public static final int BOARD_SIZE = 10;
     
-    /** 2D board */
-    protected final CellModel[][] board;
+    /** Board dimensions */
+    private final int rows, columns;
+    
+    /** Board cells, stored row after row: a cell is found at its identifier */
+    protected final CellModel[] cells;
+    
+    /** Neighbours of every cell, shared with the boards of the same size */
+    private final NeighborTable neighborTable;
     
     /** Cell identifier */
     private Integer cellId;
+    
+    /** Cells of each type, kept up to date by CellModel.setCellType() */
+    private final CellTypeIndex cellTypeIndex;
+    
+    /** Random generator for randomCell() */
+    private final Random generator;
+    
+    /** Zobrist hashes of the cell types, seen through each symmetry of the board
+     * (identity first), updated after each cell type change */
+    private final long[] hashes;
+    
+    /** Optional index of the spans made of one cell type, null if not tracked */
+    private CellSpanIndex spanIndex;
+    
+    /** Cell type tracked by spanIndex */
+    private CellType spanCellType;
 
     /** Default cell type for board cells */
     private final CellType defaultCellType;
@@ -33,15 +56,31 @@ public class BoardModel {
     /*=========================================================================*/
     
     /**
-     * Constructor
+     * Constructor, with the default board size
      * @param cellType - default cell type for every board cell
      */
     public BoardModel(CellType cellType) {
+        this(cellType, BOARD_SIZE, BOARD_SIZE);
+    }
+    
+    /**
+     * Constructor
+     * @param cellType - default cell type for every board cell
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public BoardModel(CellType cellType, int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
         this.cellId = 0;
+        this.hashes = new long[BoardSymmetry.count(rows, columns)];
         this.fleet = new Fleet();
         this.defaultCellType = cellType;
+        this.cellTypeIndex = new CellTypeIndex(rows * columns);
+        this.generator = new Random();
         
-        this.board = new CellModel[BOARD_SIZE][BOARD_SIZE];
+        this.cells = new CellModel[rows * columns];
+        this.neighborTable = NeighborTable.forSize(rows, columns);
         init(this.defaultCellType);        
     }
  
@@ -52,36 +91,8 @@ public class BoardModel {
      * @return the adjacent cell if it exists, null otherwise
      */
     public CellModel adjacentCell(CellModel cellModel, Direction direction) {
-        /* Which cellModel's location? */
-        Coord2D coord2D = cellCoords(cellModel);
-        int row = coord2D.getRow();
-        int column = coord2D.getColumn();
-        
-        /* Internal array data are stored in up-bottom and left-right order:
-            rows correspond here to left-right direction
-            columns correspond here to up-bottom directions */
-        switch (direction) {
-            case NORTH:
-                column = column - 1;
-                break;  
-            case WEST: 
-                row = row - 1;
-                break;  
-            case SOUTH:
-                column = column + 1;
-                break;  
-            case EAST: 
-                row = row + 1;
-                break;     
-            default:
-                break;
-        }
-        if (areCoordinatesInside(row, column)) {
-            return this.board[row][column];
-        }
-        else {
-            return null;
-        }
+        int neighbor = this.neighborTable.neighbor(cellModel.getId(), direction);
+        return (neighbor >= 0) ? this.cells[neighbor] : null;
     }
     
     /**
@@ -94,36 +105,8 @@ public class BoardModel {
      * @return the adjacent cell if it exists, null otherwise
      */
     public CellModel adjacentCell(CellModel cellModel, Direction direction, int step) {
-        /* Which cellModel's location? */
-        Coord2D coord2D = cellCoords(cellModel);
-        int row = coord2D.getRow();
-        int column = coord2D.getColumn();
-        
-        /* Internal array data are stored in up-bottom and left-right order:
-            rows correspond here to left-right direction
-            columns correspond here to up-bottom directions */
-        switch (direction) {
-            case NORTH:
-                column = column - step;
-                break;  
-            case WEST: 
-                row = row - step;
-                break;  
-            case SOUTH:
-                column = column + step;
-                break;  
-            case EAST: 
-                row = row + step;
-                break;     
-            default:
-                break;
-        }
-        if (areCoordinatesInside(row, column)) {
-            return this.board[row][column];
-        }
-        else {
-            return null;
-        }
+        int neighbor = this.neighborTable.neighbor(cellModel.getId(), direction, step);
+        return (neighbor >= 0) ? this.cells[neighbor] : null;
     }
     
     /**
@@ -148,19 +131,34 @@ public class BoardModel {
      * @param cellModel - the cell to deal with
      */
     public Coord2D cellCoords(CellModel cellModel) {
-        int row = cellModel.getId() / BOARD_SIZE;
-        int column = cellModel.getId() % BOARD_SIZE;
+        int row = cellModel.getId() / this.columns;
+        int column = cellModel.getId() % this.columns;
         
         return new Coord2D(row, column);
     }
     
+    /**
+     * @return the symmetry giving the smallest hash: boards equal up to a rotation
+     * or a reflection have the same canonical form
+     * @see getSymmetricHash()
+     */
+    public int canonicalSymmetry() {
+        int canonical = BoardSymmetry.IDENTITY;
+        for (int symmetry = 1; symmetry < this.hashes.length; symmetry++) {
+            if (Long.compareUnsigned(this.hashes[symmetry], this.hashes[canonical]) < 0) {
+                canonical = symmetry;
+            }
+        }
+        return canonical;
+    }
+    
     /**
      * Displays board's contents
      */
     public void display() {
-        for (int row = 0; row < BOARD_SIZE; row++) {          
-            for (int column = 0; column < BOARD_SIZE; column++) {
-                System.out.print(this.board[row][column].display() + ", ");                
+        for (int row = 0; row < this.rows; row++) {          
+            for (int column = 0; column < this.columns; column++) {
+                System.out.print(this.cells[row * this.columns + column].display() + ", ");                
             }
             System.out.println();
         }
@@ -171,10 +169,10 @@ public class BoardModel {
      * @param cellType - type to deal with
      */
     public CellModel findFirstCellOfType(CellType cellType) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int column = 0; column < BOARD_SIZE; column++) {
-                if (isCellOfType(this.board[row][column], cellType)) {
-                    return this.board[row][column];
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                if (isCellOfType(this.cells[row * this.columns + column], cellType)) {
+                    return this.cells[row * this.columns + column];
                 }
             }     
         }
@@ -215,42 +213,74 @@ public class BoardModel {
      * @param cellType - type of the cell to test
      */
     public Boolean isCellTypeInside(CellType cellType) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int column = 0; column < BOARD_SIZE; column++) {
-                if (this.board[row][column].getCellType() == cellType) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return this.cellTypeIndex.size(cellType) > 0;
     }
     
     /**
-     * @return a randomly selected cell
+     * @return a randomly selected cell, null if there is no matching cell
      * @param cellType - type of the cell to search
      * @param isCellType - determines whether the type of the cell to search for is equal to cellType or not
      */
     public CellModel randomCell(CellType cellType, Boolean isCellType) {
-        Random generator = new Random();        
-        Integer randomId;
-        CellModel cellModel;
-        
-        while(true){            
-            /* this.cellId is the cell global counter */   
-            randomId = generator.nextInt(this.cellId);
+        if (isCellType) {
+            int count = this.cellTypeIndex.size(cellType);
+            if (count == 0) {
+                return null;
+            }
+            return findCellWithId(this.cellTypeIndex.get(cellType, this.generator.nextInt(count)));
+        }
+        else {
+            /* this.cellId is the cell global counter */
+            int count = this.cellId - this.cellTypeIndex.size(cellType);
+            if (count == 0) {
+                return null;
+            }
             
-            cellModel = findCellWithId(randomId);                     
-            if (cellModel != null) {
-                if (isCellType && isCellOfType(cellModel, cellType)) {
-                    return cellModel;                    
-                }
-                else if ((!isCellType) && (!isCellOfType(cellModel, cellType))) {
-                    return cellModel;
+            /* Picks the n-th cell amongst the sets of every other type */
+            int n = this.generator.nextInt(count);
+            for (CellType otherCellType : CellTypeIndex.CELL_TYPES) {
+                if (otherCellType != cellType) {
+                    int size = this.cellTypeIndex.size(otherCellType);
+                    if (n < size) {
+                        return findCellWithId(this.cellTypeIndex.get(otherCellType, n));
+                    }
+                    n -= size;
                 }
             }
+            return null;
+        }
+    }
+    
+    /**
+     * Records in the fleet the cells occupied by each ship, as currently shown on the board
+     * (e.g. after the ships have been placed by hand)
+     */
+    public void locateShips() {
+        for (Ship ship : this.fleet.getShips()) {
+            CellType cellType = CellType.shipTypeToCellType(ship.getShipType());
+            int[] cellIds = new int[this.cellTypeIndex.size(cellType)];
+            for (int i = 0; i < cellIds.length; i++) {
+                cellIds[i] = this.cellTypeIndex.get(cellType, i);
+            }
+            Arrays.sort(cellIds);
+            this.fleet.placeShip(ship, cellIds);
         }
     }
     
+    /**
+     * @return the Zobrist key of a cell of a given type: the hash of a board is
+     * the exclusive or of the keys of all its cells
+     * @param cellId - cell identifier
+     * @param cellType - cell type
+     */
+    public static long zobristKey(int cellId, CellType cellType) {
+        /* SplitMix64 finalizer: keys are computed, not stored, so that they do not depend on the board size */
+        long key = (((long) cellId << 5) | cellType.ordinal()) * 0x9E3779B97F4A7C15L;
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
+    }
+    
     /**
      * Replaces a set of cell types with another one
      * @param oldCellType - type to replace
@@ -258,10 +288,10 @@ public class BoardModel {
      */
     public void replaceAll(CellType oldCellType,
                             CellType newCellType) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int column = 0; column < BOARD_SIZE; column++) {
-                if (this.board[row][column].getCellType() == oldCellType) {
-                    this.board[row][column].setCellType(newCellType);                
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                if (this.cells[row * this.columns + column].getCellType() == oldCellType) {
+                    this.cells[row * this.columns + column].setCellType(newCellType);                
                 }
             }
         }
@@ -272,20 +302,45 @@ public class BoardModel {
      * @param cellType - default value
      */
     public void reset(CellType cellType) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int column = 0; column < BOARD_SIZE; column++) {
-                this.board[row][column].setCellType(cellType);                
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                this.cells[row * this.columns + column].setCellType(cellType);                
             }
         }
     }
     
      
+    /**
+     * Starts maintaining the spans made of a given cell type along rows and columns
+     * @param cellType - type of the cells forming the spans
+     * @return the span index, updated after each cell type change
+     */
+    public CellSpanIndex trackSpans(CellType cellType) {
+        this.spanCellType = cellType;
+        this.spanIndex = new CellSpanIndex(this.rows, this.columns);
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                CellModel cellModel = this.cells[row * this.columns + column];
+                this.spanIndex.update(cellModel.getId(), cellModel.getCellType() == cellType);
+            }
+        }
+        return this.spanIndex;
+    }
+     
     /*
      * Getters / Setters
      */    
        
     public CellModel getCellModel(int row, int column) {
-        return this.board[row][column];
+        return this.cells[row * this.columns + column];
+    }
+    
+    public CellModel getCellModel(int cellId) {
+        return findCellWithId(cellId);
+    }
+    
+    public int getColumns() {
+        return this.columns;
     }
     
     public CellType getDefaultCellType() {
@@ -295,23 +350,50 @@ public class BoardModel {
     public Fleet getFleet() {
         return this.fleet;
     }
-
-
+    
+    public long getHash() {
+        return this.hashes[BoardSymmetry.IDENTITY];
+    }
+    
+    public long getSymmetricHash(int symmetry) {
+        return this.hashes[symmetry];
+    }
+    
+    public int getRows() {
+        return this.rows;
+    }
+    
+    public CellSpanIndex getSpanIndex() {
+        return this.spanIndex;
+    }
+    
+    
     /*=========================================================================*/
-    /* Private methods                                                         */       
+    /* Package methods                                                         */       
     /*=========================================================================*/
     
     /**
-     * Checks whether a pair of coordinates is located inside the board
-     * @param row - row coordinate
-     * @param column - column coordinate
-     * @return true if coordinates are inside, null otherwise
-     * @see adjacentCell()
+     * Keeps the cell type index, the span index and the hash up to date
+     * @param cellModel - cell whose type has just changed
+     * @param oldCellType - previous type of the cell
+     * @see CellModel#setCellType(CellType)
      */
-    private Boolean areCoordinatesInside(int row, int column) {
-        return (row >= 0 && row < BOARD_SIZE 
-                && column >= 0 && column < BOARD_SIZE);
+    void cellTypeChanged(CellModel cellModel, CellType oldCellType) {
+        this.cellTypeIndex.move(cellModel.getId(), oldCellType, cellModel.getCellType());
+        for (int symmetry = 0; symmetry < this.hashes.length; symmetry++) {
+            int imageId = BoardSymmetry.transform(symmetry, cellModel.getId(), this.rows, this.columns);
+            this.hashes[symmetry] ^= zobristKey(imageId, oldCellType) ^ zobristKey(imageId, cellModel.getCellType());
+        }
+        
+        if (this.spanIndex != null) {
+            this.spanIndex.update(cellModel.getId(), cellModel.getCellType() == this.spanCellType);
+        }
     }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */       
+    /*=========================================================================*/
     
     /**
      * Searches for a cell, knowing its id
@@ -319,15 +401,11 @@ public class BoardModel {
      * @return the cell matching cellId, null otherwise
      * @see isCellOfType()
      */
-    private CellModel findCellWithId(Integer cellId) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int column = 0; column < BOARD_SIZE; column++) {
-                if (this.board[row][column].getId() == cellId) {
-                    return this.board[row][column];
-                }
-            }     
+    private CellModel findCellWithId(int cellId) {
+        if (cellId < 0 || cellId >= this.cellId) {
+            return null;
         }
-        return null;
+        return this.cells[cellId];
     }    
     
     /**
@@ -336,9 +414,16 @@ public class BoardModel {
      * @see BoardModel()
      */
     private void init(CellType cellType) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int column = 0; column < BOARD_SIZE; column++) {                
-                this.board[row][column] = new CellModel(cellType, this.cellId++);                   
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {                
+                CellModel cellModel = new CellModel(cellType, this.cellId++);
+                this.cellTypeIndex.add(cellModel.getId(), cellType);
+                for (int symmetry = 0; symmetry < this.hashes.length; symmetry++) {
+                    this.hashes[symmetry] ^= zobristKey(BoardSymmetry.transform(symmetry, cellModel.getId(),
+                                                                                this.rows, this.columns), cellType);
+                }
+                cellModel.setBoardModel(this);
+                this.cells[cellModel.getId()] = cellModel;
             }
         }
     } 
@@ -0,0 +1,84 @@
+package battleship2D.model;
+
+/**
+ * Rotations and reflections mapping a board onto itself.
+ * A symmetry is a number made of three bits: TRANSPOSE swaps rows and columns
+ * (square boards only), then FLIP_ROWS and FLIP_COLUMNS reverse the order of the
+ * rows and of the columns. Symmetries 0 to count() - 1 apply to a board, 0 being the identity.
+ */
+public final class BoardSymmetry {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Symmetry leaving every cell in place */
+    public static final int IDENTITY = 0;
+
+    /** Bits of a symmetry */
+    public static final int FLIP_COLUMNS = 1;
+    public static final int FLIP_ROWS = 2;
+    public static final int TRANSPOSE = 4;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * @return the number of symmetries of a board: 8 if it is square, 4 otherwise
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public static int count(int rows, int columns) {
+        return (rows == columns) ? 8 : 4;
+    }
+
+    /**
+     * @return the symmetry undoing another one
+     * @param symmetry - symmetry to undo
+     */
+    public static int inverse(int symmetry) {
+        if ((symmetry & TRANSPOSE) == 0) {
+            return symmetry;
+        }
+        /* Flipping the rows after the transposition flips the columns before it, and conversely */
+        int flipRows = (symmetry & FLIP_ROWS) != 0 ? FLIP_COLUMNS : 0;
+        int flipColumns = (symmetry & FLIP_COLUMNS) != 0 ? FLIP_ROWS : 0;
+        return TRANSPOSE | flipRows | flipColumns;
+    }
+
+    /**
+     * @return the image of a cell by a symmetry
+     * @param symmetry - symmetry to apply, lower than count(rows, columns)
+     * @param cellId - cell to deal with
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public static int transform(int symmetry, int cellId, int rows, int columns) {
+        int row = cellId / columns;
+        int column = cellId % columns;
+        if ((symmetry & TRANSPOSE) != 0) {
+            int swap = row;
+            row = column;
+            column = swap;
+        }
+        if ((symmetry & FLIP_ROWS) != 0) {
+            row = rows - 1 - row;
+        }
+        if ((symmetry & FLIP_COLUMNS) != 0) {
+            column = columns - 1 - column;
+        }
+        return row * columns + column;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Constructor: static methods only
+     */
+    private BoardSymmetry() {
+    }
+}
@@ -1,6 +1,7 @@
 package battleship2D.model;
 
-import javafx.beans.property.SimpleStringProperty;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 
 /**
  * Board model element
@@ -14,12 +15,15 @@ public class CellModel {
     /** Related type */
     private CellType cellType;
     
-    /** Store the associated color */
-    private final SimpleStringProperty colorProperty;
+    /** Listeners management, created with the first listener */
+    private PropertyChangeSupport pcsListeners;
     
     /** Unique identifier */
     private Integer id;
     
+    /** Board owning this cell, notified of each type change */
+    private BoardModel boardModel;
+    
     
     /*=========================================================================*/
     /* Public methods                                                          */       
@@ -31,8 +35,6 @@ public class CellModel {
      * @param id - identifier
      */
     public CellModel(CellType cellType, Integer id) {
-        this.colorProperty = new SimpleStringProperty();
-        
         setCellType(cellType);
         setId(id);
     }
@@ -46,6 +48,22 @@ public class CellModel {
                 + this.cellType.getAppearance() + "]";
     }
     
+    /*
+     * Property Change Listeners management
+     */
+    public void addPropertyChangeListener(PropertyChangeListener propertyChangeListener) {
+        if (this.pcsListeners == null) {
+            this.pcsListeners = new PropertyChangeSupport(this);
+        }
+        this.pcsListeners.addPropertyChangeListener(propertyChangeListener);
+    }
+    
+    public void removePropertyChangeListener (PropertyChangeListener propertyChangeListener) {
+        if (this.pcsListeners != null) {
+            this.pcsListeners.removePropertyChangeListener(propertyChangeListener);
+        }
+    }
+    
     /*
      * Getters / Setters
      */
@@ -55,12 +73,15 @@ public class CellModel {
     }
     
     public final void setCellType (CellType cellType) {
+        CellType oldCellType = this.cellType;
         this.cellType = cellType;
-        this.colorProperty.setValue(this.cellType.getAppearance());
-    }
-    
-    public SimpleStringProperty getColorProperty() {
-        return this.colorProperty;
+        
+        if (this.boardModel != null && oldCellType != cellType) {
+            this.boardModel.cellTypeChanged(this, oldCellType);
+        }
+        if (this.pcsListeners != null) {
+            this.pcsListeners.firePropertyChange("cellModelCellType", oldCellType, cellType);
+        }
     }
     
     public Integer getId() {
@@ -70,4 +91,8 @@ public class CellModel {
     public final void setId(Integer id) {
         this.id = id;
     }
+    
+    final void setBoardModel(BoardModel boardModel) {
+        this.boardModel = boardModel;
+    }
 }
@@ -0,0 +1,231 @@
+package battleship2D.model;
+
+import java.util.Arrays;
+
+/**
+ * Index of the maximal spans (runs of consecutive cells) of one cell type,
+ * along every row and every column of a board.
+ * Spans are grouped by length, so that the cells lying at the center of a
+ * span of a given length can be enumerated in a time proportional to the
+ * number of matching spans, without scanning the board.
+ * After a cell changes, only the spans of its row and its column are updated.
+ * @see BoardModel#trackSpans(CellType)
+ */
+public class CellSpanIndex {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Board dimensions */
+    private final int rows, columns;
+
+    /** Length of the longest line (row or column) */
+    private final int maxLength;
+
+    /** Cells currently belonging to a span */
+    private final boolean[] tracked;
+
+    /** Span length, indexed by span identifier (line * maxLength + start), 0 if there is no span */
+    private final int[] spanLength;
+
+    /** Position of each span in the bucket of its length */
+    private final int[] bucketPosition;
+
+    /** Span identifiers grouped by length, with the number of spans in each bucket */
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+
+    /** Marks used to avoid returning the same cell twice in collectSpanCenters() */
+    private final int[] stamps;
+    private int currentStamp;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor: every cell is tracked at first
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public CellSpanIndex(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.maxLength = Math.max(rows, columns);
+
+        int lines = rows + columns;
+        this.tracked = new boolean[rows * columns];
+        this.spanLength = new int[lines * this.maxLength];
+        this.bucketPosition = new int[lines * this.maxLength];
+        this.buckets = new int[this.maxLength + 1][];
+        for (int length = 0; length <= this.maxLength; length++) {
+            this.buckets[length] = new int[4];
+        }
+        this.bucketSizes = new int[this.maxLength + 1];
+        this.stamps = new int[rows * columns];
+        this.currentStamp = 0;
+
+        /* One span covers each whole line */
+        Arrays.fill(this.tracked, true);
+        for (int row = 0; row < rows; row++) {
+            addSpan(row, 0, columns);
+        }
+        for (int column = 0; column < columns; column++) {
+            addSpan(rows + column, 0, rows);
+        }
+    }
+
+    /**
+     * Collects the cells at the center of a span of a given size, along a row or a column.
+     * Noting C the position of the cell, spans are defined as follows:
+     * - if size is odd: [C-2][C-1][C][C+1][C+2]
+     * - if size is even: [C-2][C-1][C][C+1] or [C-1][C][C+1][C+2]
+     * Each cell is collected once, even if it is the center of several spans.
+     * @param size - span length
+     * @pre size > 0
+     * @param cellIds - output array, large enough to hold every cell of the board
+     * @return the number of cell identifiers stored in cellIds
+     */
+    public int collectSpanCenters(int size, int[] cellIds) {
+        int count = 0;
+        this.currentStamp++;
+
+        /* Both even-size spans share their center with one of their neighbours:
+            the valid centers are those at distance size/2 - 1 from both span ends */
+        int margin = (size % 2 == 1) ? size / 2 : size / 2 - 1;
+        for (int length = Math.max(size, 1); length <= this.maxLength; length++) {
+            for (int i = 0; i < this.bucketSizes[length]; i++) {
+                int spanId = this.buckets[length][i];
+                int line = spanId / this.maxLength;
+                int start = spanId % this.maxLength;
+
+                for (int position = start + margin; position <= start + length - 1 - margin; position++) {
+                    int cellId = cellIdOnLine(line, position);
+                    if (this.stamps[cellId] != this.currentStamp) {
+                        this.stamps[cellId] = this.currentStamp;
+                        cellIds[count++] = cellId;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of maximal spans of a given length
+     * @param length - span length
+     */
+    public int countSpans(int length) {
+        return (length >= 0 && length <= this.maxLength) ? this.bucketSizes[length] : 0;
+    }
+
+    /**
+     * Updates the spans of the row and the column of a cell
+     * @param cellId - cell which has changed
+     * @param isTracked - true if the cell now belongs to the tracked type
+     */
+    public void update(int cellId, boolean isTracked) {
+        if (this.tracked[cellId] == isTracked) {
+            return;
+        }
+        this.tracked[cellId] = isTracked;
+
+        int row = cellId / this.columns;
+        int column = cellId % this.columns;
+        updateLine(row, column, this.columns, isTracked);
+        updateLine(this.rows + column, row, this.rows, isTracked);
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Registers a new span
+     * @param line - line identifier (rows first, then columns)
+     * @param start - first position of the span in the line
+     * @param length - span length
+     */
+    private void addSpan(int line, int start, int length) {
+        if (length <= 0) {
+            return;
+        }
+        int spanId = line * this.maxLength + start;
+        if (this.bucketSizes[length] == this.buckets[length].length) {
+            int[] grown = new int[this.buckets[length].length * 2];
+            System.arraycopy(this.buckets[length], 0, grown, 0, this.bucketSizes[length]);
+            this.buckets[length] = grown;
+        }
+        this.spanLength[spanId] = length;
+        this.bucketPosition[spanId] = this.bucketSizes[length];
+        this.buckets[length][this.bucketSizes[length]++] = spanId;
+    }
+
+    /**
+     * @return the identifier of the cell at a given position of a line
+     * @param line - line identifier
+     * @param position - position in the line
+     */
+    private int cellIdOnLine(int line, int position) {
+        if (line < this.rows) {
+            return line * this.columns + position;
+        }
+        else {
+            return position * this.columns + (line - this.rows);
+        }
+    }
+
+    /**
+     * Unregisters a span: the last span of its bucket takes its place
+     * @param line - line identifier
+     * @param start - first position of the span in the line
+     */
+    private void removeSpan(int line, int start) {
+        int spanId = line * this.maxLength + start;
+        int length = this.spanLength[spanId];
+        int position = this.bucketPosition[spanId];
+        int last = this.buckets[length][--this.bucketSizes[length]];
+
+        this.buckets[length][position] = last;
+        this.bucketPosition[last] = position;
+        this.spanLength[spanId] = 0;
+    }
+
+    /**
+     * Splits or merges the spans around a position of a line
+     * @param line - line identifier
+     * @param position - position of the changed cell in the line
+     * @param lineLength - number of cells in the line
+     * @param isTracked - true if the cell has joined the tracked type
+     * @see update()
+     */
+    private void updateLine(int line, int position, int lineLength, boolean isTracked) {
+        /* First tracked position of the span on the left of the cell, if any */
+        int start = position;
+        while (start > 0 && this.tracked[cellIdOnLine(line, start - 1)]) {
+            start--;
+        }
+
+        if (isTracked) {
+            /* The cell joins its left and right neighbours (if any) into a single span */
+            int end = position + 1;
+            if (end < lineLength && this.tracked[cellIdOnLine(line, end)]) {
+                end += this.spanLength[line * this.maxLength + end];
+                removeSpan(line, position + 1);
+            }
+            if (start < position) {
+                removeSpan(line, start);
+            }
+            addSpan(line, start, end - start);
+        }
+        else {
+            /* The span containing the cell is cut into two parts */
+            int length = this.spanLength[line * this.maxLength + start];
+            removeSpan(line, start);
+            addSpan(line, start, position - start);
+            addSpan(line, position + 1, start + length - position - 1);
+        }
+    }
+}
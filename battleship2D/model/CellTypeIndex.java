@@ -0,0 +1,112 @@
+package battleship2D.model;
+
+/**
+ * Indexed sets of cell identifiers, one set per cell type.
+ * Each set is a dense array with swap-remove deletion, together with the
+ * position of every cell inside its set, so that adding, removing, counting
+ * and picking the n-th element of a set are all constant-time operations.
+ * @see BoardModel#randomCell(CellType, Boolean)
+ */
+class CellTypeIndex {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Cached values of CellType (values() allocates a new array each call) */
+    static final CellType[] CELL_TYPES = CellType.values();
+
+    /** Cell identifiers of each type, indexed with CellType.ordinal() */
+    private final int[][] members;
+
+    /** Number of valid elements in each members array */
+    private final int[] sizes;
+
+    /** Position of each cell in the members array of its current type */
+    private final int[] positions;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param numberOfCells - number of cells in the board
+     */
+    CellTypeIndex(int numberOfCells) {
+        this.members = new int[CELL_TYPES.length][];
+        for (int i = 0; i < CELL_TYPES.length; i++) {
+            this.members[i] = new int[Math.min(numberOfCells, 16)];
+        }
+        this.sizes = new int[CELL_TYPES.length];
+        this.positions = new int[numberOfCells];
+    }
+
+    /**
+     * Inserts a cell into the set of a given type
+     * @param cellId - cell to insert
+     * @param cellType - type of the cell
+     */
+    void add(int cellId, CellType cellType) {
+        int type = cellType.ordinal();
+        if (this.sizes[type] == this.members[type].length) {
+            int[] grown = new int[Math.max(1, this.members[type].length * 2)];
+            System.arraycopy(this.members[type], 0, grown, 0, this.sizes[type]);
+            this.members[type] = grown;
+        }
+        this.members[type][this.sizes[type]] = cellId;
+        this.positions[cellId] = this.sizes[type];
+        this.sizes[type]++;
+    }
+
+    /**
+     * @return the index-th cell of a given type
+     * @param cellType - type to deal with
+     * @param index - position in the set, between 0 and size(cellType) - 1
+     */
+    int get(CellType cellType, int index) {
+        return this.members[cellType.ordinal()][index];
+    }
+
+    /**
+     * Moves a cell from the set of its old type to the set of its new type
+     * @param cellId - cell to move
+     * @param oldCellType - previous type of the cell
+     * @param newCellType - new type of the cell
+     */
+    void move(int cellId, CellType oldCellType, CellType newCellType) {
+        if (oldCellType != newCellType) {
+            remove(cellId, oldCellType);
+            add(cellId, newCellType);
+        }
+    }
+
+    /**
+     * @return the number of cells of a given type
+     * @param cellType - type to deal with
+     */
+    int size(CellType cellType) {
+        return this.sizes[cellType.ordinal()];
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Removes a cell from the set of a given type: the last element of the set
+     * takes the place of the removed one
+     * @param cellId - cell to remove
+     * @param cellType - current type of the cell
+     * @see move()
+     */
+    private void remove(int cellId, CellType cellType) {
+        int type = cellType.ordinal();
+        int position = this.positions[cellId];
+        int last = this.members[type][--this.sizes[type]];
+
+        this.members[type][position] = last;
+        this.positions[last] = position;
+    }
+}
@@ -1,6 +1,8 @@
 package battleship2D.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 
 /**
  * Fleet of Ships
@@ -17,8 +19,17 @@ public class Fleet {
     /** Checks whether the last hit ship has been entirely destroyed */
     private Boolean lastHitShipDestroyed = false;
     
-    /** Counts ships parts which have not been hit  */
-    private final int[] remainingParts;
+    /** Index of the ship of each type in ships, -1 if there is none */
+    private final int[] shipIndexByType;
+    
+    /** Ship part occupying each cell, encoded as (ship index << PART_BITS) | part index, -1 for no ship */
+    private int[] shipPartByCell;
+    
+    /** Ship parts keyed by cell instead, for the boards too large for shipPartByCell; null otherwise */
+    private final HashMap<Integer, Integer> shipPartBySparseCell;
+    
+    /** Number of bits used to encode a part index in shipPartByCell */
+    private static final int PART_BITS = 6;
     
     /** Count still remaining ships */
     private int remainingShips;
@@ -35,11 +46,22 @@ public class Fleet {
      * Constructor
      */
     public Fleet() {
+        this(false);
+    }
+    
+    /**
+     * Constructor
+     * @param sparse - true to key the ship parts by cell in a map, whose size does not
+     * depend on the board (for very large boards), false to index them in an array
+     */
+    public Fleet(boolean sparse) {
         this.ships = new ArrayList<>();
         initShips();
         
-        this.remainingParts = new int[this.ships.size()];
-        initRemainingParts();
+        this.shipIndexByType = new int[ShipType.values().length];
+        initShipIndexByType();
+        this.shipPartByCell = new int[0];
+        this.shipPartBySparseCell = sparse ? new HashMap<>() : null;
         
         this.remainingShips = this.ships.size();
     }
@@ -49,12 +71,17 @@ public class Fleet {
      * @return the ship matching shiptype, null otherwise
      */
     public Ship findShipFromType(ShipType shipType) {
-        for (Ship ship : this.ships) {
-            if (ship.getShipType() == shipType) {
-                return ship;
-            }
-        }
-        return null;
+        int shipIndex = this.shipIndexByType[shipType.ordinal()];
+        return (shipIndex >= 0) ? this.ships.get(shipIndex) : null;
+    }
+    
+    /**
+     * @param cellId - identifier of a board cell
+     * @return the ship occupying the cell, null if there is none
+     */
+    public Ship findShipAt(int cellId) {
+        int shipPart = shipPartAt(cellId);
+        return (shipPart >= 0) ? this.ships.get(shipPart >> PART_BITS) : null;
     }
     
     /**
@@ -65,23 +92,76 @@ public class Fleet {
     }
     
     /**
-     * Updates the number of ship parts that have been hit
+     * Records the location of a ship of this fleet
+     * @param ship - ship to deal with
+     * @param cellIds - identifiers of the occupied cells, from one end to the other
+     */
+    public void placeShip(Ship ship, int[] cellIds) {
+        int shipIndex = this.shipIndexByType[ship.getShipType().ordinal()];
+        
+        /* Forgets the previous location of the ship */
+        for (int cellId : ship.getCellIds()) {
+            if (this.shipPartBySparseCell != null) {
+                this.shipPartBySparseCell.remove(cellId);
+            }
+            else {
+                this.shipPartByCell[cellId] = -1;
+            }
+        }
+        
+        if (this.shipPartBySparseCell != null) {
+            for (int part = 0; part < cellIds.length; part++) {
+                this.shipPartBySparseCell.put(cellIds[part], (shipIndex << PART_BITS) | part);
+            }
+            ship.setCellIds(cellIds.clone());
+            return;
+        }
+        
+        int maxCellId = -1;
+        for (int cellId : cellIds) {
+            maxCellId = Math.max(maxCellId, cellId);
+        }
+        if (maxCellId >= this.shipPartByCell.length) {
+            int oldLength = this.shipPartByCell.length;
+            this.shipPartByCell = Arrays.copyOf(this.shipPartByCell, Math.max(maxCellId + 1, 2 * oldLength));
+            Arrays.fill(this.shipPartByCell, oldLength, this.shipPartByCell.length, -1);
+        }
+        
+        for (int part = 0; part < cellIds.length; part++) {
+            this.shipPartByCell[cellIds[part]] = (shipIndex << PART_BITS) | part;
+        }
+        ship.setCellIds(cellIds.clone());
+    }
+    
+    /**
+     * Records a hit on a board cell
+     * @param cellId - identifier of the cell reached by a missile
+     * @return the ship which has been hit, null if the cell holds no placed ship
+     */
+    public Ship updateHits(int cellId) {
+        int shipPart = shipPartAt(cellId);
+        if (shipPart < 0) {
+            return null;
+        }
+        Ship lastHitShip = this.ships.get(shipPart >> PART_BITS);
+        boolean wasDestroyed = lastHitShip.isDestroyed();
+        lastHitShip.hit(shipPart & ((1 << PART_BITS) - 1));
+        updateRemainingShips(lastHitShip, wasDestroyed);
+        return lastHitShip;
+    }
+    
+    /**
+     * Updates the number of ship parts that have been hit,
+     * when the location of the ship does not matter
      * @param shipType - type of the ship to deal with
      */
     public void updateHits(ShipType shipType) {
         Ship lastHitShip = findShipFromType(shipType);
         
         if (lastHitShip != null) {
-            int shipIndex = this.ships.indexOf(lastHitShip);
-            this.remainingParts[shipIndex] --;            
-
-            /* Is the ship completely terminated? */
-            if (this.remainingParts[shipIndex] == 0) {                
-                updateRemaininghips();                        
-            }   
-            else {
-                this.lastHitShipDestroyed = false;
-            }
+            boolean wasDestroyed = lastHitShip.isDestroyed();
+            lastHitShip.hitNextPart();
+            updateRemainingShips(lastHitShip, wasDestroyed);
         }
     }
     
@@ -106,12 +186,26 @@ public class Fleet {
     /*=========================================================================*/
     
     /**
-     * All ships are unscathed at first
+     * @return the ship part occupying a cell, encoded as in shipPartByCell, -1 for no ship
+     * @param cellId - identifier of a board cell
+     * @see findShipAt()
+     * @see updateHits()
+     */
+    private int shipPartAt(int cellId) {
+        if (this.shipPartBySparseCell != null) {
+            return this.shipPartBySparseCell.getOrDefault(cellId, -1);
+        }
+        return (cellId < this.shipPartByCell.length) ? this.shipPartByCell[cellId] : -1;
+    }
+    
+    /**
+     * Indexes the ships by type
      * @see Fleet()
      */
-    private void initRemainingParts() {
-        for (int i = 0; i < this.remainingParts.length; i++) {
-            this.remainingParts[i] = this.ships.get(i).getSize();
+    private void initShipIndexByType() {
+        Arrays.fill(this.shipIndexByType, -1);
+        for (int i = 0; i < this.ships.size(); i++) {
+            this.shipIndexByType[this.ships.get(i).getShipType().ordinal()] = i;
         }
     }
     
@@ -129,9 +223,15 @@ public class Fleet {
     
     /**
      * Updates fleet counters after a hit
+     * @param lastHitShip - ship which has just been hit
+     * @param wasDestroyed - true if the ship was already destroyed before the hit
      * @see updateHits()
      */
-    private void updateRemaininghips() {
+    private void updateRemainingShips(Ship lastHitShip, boolean wasDestroyed) {
+        if (wasDestroyed || ! lastHitShip.isDestroyed()) {
+            this.lastHitShipDestroyed = false;
+            return;
+        }
         this.remainingShips --;
         this.lastHitShipDestroyed = true;
      
@@ -0,0 +1,205 @@
+package battleship2D.model;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Places a whole fleet at random on a board, using one PlacementTable per ship length.
+ * Each ship takes a placement drawn uniformly amongst its legal placements; placing it
+ * removes the placements of every length crossing its cells. When a ship has no legal
+ * placement left, the previous choices are undone one at a time (backtracking), so that
+ * the placement fails only when no layout of the fleet exists.
+ */
+public class FleetPlacer {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Board dimensions */
+    private final int rows, columns;
+
+    /** One table per ship length, null for the lengths not used */
+    private final PlacementTable[] tables;
+
+    /** Tables of the distinct lengths actually used, and their number */
+    private final PlacementTable[] usedTables;
+    private int usedTableCount;
+
+    /** Sizes of the ships to place, and the placement chosen for each of them */
+    private int[] sizes;
+    private int[] chosen;
+
+    /** Random generator */
+    private final Random random;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param rows - number of rows
+     * @param columns - number of columns
+     * @param random - random generator
+     */
+    public FleetPlacer(int rows, int columns, Random random) {
+        this.rows = rows;
+        this.columns = columns;
+        this.tables = new PlacementTable[Math.max(rows, columns) + 1];
+        this.usedTables = new PlacementTable[this.tables.length];
+        this.usedTableCount = 0;
+        this.random = random;
+    }
+
+    /**
+     * Places a fleet on the free cells of a board: cells of the default type, or AVAILABLE_LOCATION
+     * @param boardModel - board to fill, whose fleet gives the ships to place
+     * @return true if the whole fleet has been placed, false if it does not fit
+     * (the board is then left unchanged)
+     */
+    public boolean placeFleet(BoardModel boardModel) {
+        ArrayList<Ship> ships = boardModel.getFleet().getShips();
+        int[] shipSizes = new int[ships.size()];
+        for (int ship = 0; ship < shipSizes.length; ship++) {
+            shipSizes[ship] = ships.get(ship).getSize();
+        }
+        if (! prepare(shipSizes)) {
+            return false;
+        }
+
+        /* Cells already taken */
+        for (int cellId = 0; cellId < this.rows * this.columns; cellId++) {
+            CellType cellType = boardModel.getCellModel(cellId).getCellType();
+            if (cellType != boardModel.getDefaultCellType() && cellType != CellType.AVAILABLE_LOCATION) {
+                blockCell(cellId);
+            }
+        }
+        if (! placeShip(0)) {
+            return false;
+        }
+
+        for (int ship = 0; ship < shipSizes.length; ship++) {
+            PlacementTable table = this.tables[shipSizes[ship]];
+            CellType cellType = CellType.shipTypeToCellType(ships.get(ship).getShipType());
+            int start = table.start(this.chosen[ship]);
+            int stride = table.stride(this.chosen[ship]);
+            int[] cellIds = new int[shipSizes[ship]];
+            for (int k = 0; k < shipSizes[ship]; k++) {
+                cellIds[k] = start + k * stride;
+                boardModel.getCellModel(cellIds[k]).setCellType(cellType);
+            }
+            boardModel.getFleet().placeShip(ships.get(ship), cellIds);
+        }
+        return true;
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public int getColumns() {
+        return this.columns;
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Removes the placements of every used length covering a cell
+     * @param cellId - cell to deal with
+     */
+    private void blockCell(int cellId) {
+        for (int t = 0; t < this.usedTableCount; t++) {
+            this.usedTables[t].block(cellId);
+        }
+    }
+
+    /**
+     * Places a ship and the following ones, backtracking on failure
+     * @param ship - index of the ship to place
+     * @return true if this ship and the following ones have been placed
+     * @see placeFleet()
+     */
+    private boolean placeShip(int ship) {
+        if (ship == this.sizes.length) {
+            return true;
+        }
+        PlacementTable table = this.tables[this.sizes[ship]];
+        int[] marks = new int[this.usedTableCount];
+        int triedMark = table.mark();
+
+        while (table.size() > 0) {
+            int placement = table.sample(this.random);
+            for (int t = 0; t < this.usedTableCount; t++) {
+                marks[t] = this.usedTables[t].mark();
+            }
+
+            int start = table.start(placement);
+            int stride = table.stride(placement);
+            for (int k = 0; k < this.sizes[ship]; k++) {
+                blockCell(start + k * stride);
+            }
+            if (placeShip(ship + 1)) {
+                this.chosen[ship] = placement;
+                return true;
+            }
+
+            /* Dead end: this placement is excluded, the following ones are tried */
+            for (int t = 0; t < this.usedTableCount; t++) {
+                this.usedTables[t].rollback(marks[t]);
+            }
+            table.remove(placement);
+        }
+        table.rollback(triedMark);
+        return false;
+    }
+
+    /**
+     * Creates the missing tables and makes every placement legal again
+     * @param shipSizes - sizes of the ships to place
+     * @return false if a ship is too long for the board
+     * @see placeFleet()
+     */
+    private boolean prepare(int[] shipSizes) {
+        this.sizes = shipSizes;
+        this.chosen = new int[shipSizes.length];
+        this.usedTableCount = 0;
+
+        for (int size : shipSizes) {
+            if (size < 1 || size >= this.tables.length) {
+                return false;
+            }
+            if (this.tables[size] == null) {
+                this.tables[size] = new PlacementTable(this.rows, this.columns, size);
+            }
+        }
+        for (int size = 1; size < this.tables.length; size++) {
+            if (this.tables[size] != null && contains(shipSizes, size)) {
+                this.tables[size].reset();
+                this.usedTables[this.usedTableCount++] = this.tables[size];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if an array contains a value
+     * @param values - array to search
+     * @param value - value to search for
+     */
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,227 @@
+package battleship2D.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Neighbours of every cell of a board along each direction, stored as flat arrays
+ * of cell identifiers (-1 when the neighbour would lie outside the board).
+ * A table is built once per board size and shared by every board of that size: the boards
+ * hold it, the shared tables only refer to it weakly, so that the table of a size no board
+ * uses anymore (e.g. in a tournament mixing sizes) can be reclaimed.
+ * Tables for a step of 1 are built with the table, the following steps on first use;
+ * larger steps are computed, still without any allocation.
+ */
+public final class NeighborTable {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Largest step for which neighbours are stored */
+    public static final int CACHED_STEPS = 8;
+
+    /** Shared tables, by board size (rows in the upper 32 bits, columns in the lower ones) */
+    private static final ConcurrentHashMap<Long, TableReference> TABLES = new ConcurrentHashMap<>();
+
+    /** References to the shared tables that have been reclaimed */
+    private static final ReferenceQueue<NeighborTable> RECLAIMED = new ReferenceQueue<>();
+
+    /** Board dimensions */
+    private final int rows, columns;
+
+    /** Neighbours indexed by step, then direction ordinal, then cell identifier */
+    private final AtomicReferenceArray<int[][]> neighbors;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * @return the table shared by the boards of a given size, to be kept by the board
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public static NeighborTable forSize(int rows, int columns) {
+        removeReclaimedTables();
+
+        long key = ((long) rows << 32) | (columns & 0xFFFFFFFFL);
+        TableReference reference = TABLES.get(key);
+        NeighborTable table = (reference != null) ? reference.get() : null;
+        if (table != null) {
+            return table;
+        }
+        NeighborTable newTable = new NeighborTable(rows, columns);
+        while (true) {
+            reference = TABLES.get(key);
+            table = (reference != null) ? reference.get() : null;
+            if (table != null) {
+                return table;
+            }
+            TableReference newReference = new TableReference(newTable, key);
+            boolean stored = (reference == null) ? TABLES.putIfAbsent(key, newReference) == null
+                                                 : TABLES.replace(key, reference, newReference);
+            if (stored) {
+                return newTable;
+            }
+        }
+    }
+
+    /**
+     * Searches for the cell adjacent to another
+     * @param cellId - cell to deal with
+     * @param direction - direction to follow
+     * @return the adjacent cell identifier, -1 if it is outside the board
+     */
+    public int neighbor(int cellId, Direction direction) {
+        return this.neighbors.get(1)[direction.ordinal()][cellId];
+    }
+
+    /**
+     * Searches for the cell located a given number of cells away from another
+     * @param cellId - cell to deal with
+     * @param direction - direction to follow
+     * @param step - number of cells to jump (1 for the adjacent cell)
+     * @return the cell identifier, -1 if it is outside the board
+     */
+    public int neighbor(int cellId, Direction direction, int step) {
+        if (step >= 1 && step <= CACHED_STEPS) {
+            return table(direction, step)[cellId];
+        }
+        return computeNeighbor(cellId, direction, step);
+    }
+
+    /**
+     * @return the neighbours of every cell for a direction and a step (shared: not to be modified)
+     * @param direction - direction to follow
+     * @param step - number of cells to jump, from 1 to CACHED_STEPS
+     */
+    public int[] table(Direction direction, int step) {
+        int[][] stepNeighbors = this.neighbors.get(step);
+        if (stepNeighbors == null) {
+            this.neighbors.compareAndSet(step, null, buildStep(step));
+            stepNeighbors = this.neighbors.get(step);
+        }
+        return stepNeighbors[direction.ordinal()];
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public int getColumns() {
+        return this.columns;
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param rows - number of rows
+     * @param columns - number of columns
+     * @see forSize()
+     */
+    private NeighborTable(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.neighbors = new AtomicReferenceArray<>(CACHED_STEPS + 1);
+        this.neighbors.set(1, buildStep(1));
+    }
+
+    /**
+     * Forgets the shared tables that have been reclaimed
+     * @see forSize()
+     */
+    private static void removeReclaimedTables() {
+        TableReference reference;
+        while ((reference = (TableReference) RECLAIMED.poll()) != null) {
+            TABLES.remove(reference.key, reference);
+        }
+    }
+
+    /**
+     * Builds the neighbours of every cell for a given step, along every direction
+     * @param step - number of cells to jump
+     * @return the neighbours, indexed by direction ordinal then cell identifier
+     */
+    private int[][] buildStep(int step) {
+        Direction[] directions = Direction.values();
+        int[][] stepNeighbors = new int[directions.length][this.rows * this.columns];
+        for (Direction direction : directions) {
+            int[] table = stepNeighbors[direction.ordinal()];
+            for (int cellId = 0; cellId < table.length; cellId++) {
+                table[cellId] = computeNeighbor(cellId, direction, step);
+            }
+        }
+        return stepNeighbors;
+    }
+
+    /**
+     * Computes a neighbour from the cell coordinates
+     * @param cellId - cell to deal with
+     * @param direction - direction to follow
+     * @param step - number of cells to jump
+     * @return the cell identifier, -1 if it is outside the board
+     */
+    private int computeNeighbor(int cellId, Direction direction, int step) {
+        int row = cellId / this.columns;
+        int column = cellId % this.columns;
+
+        /* Internal array data are stored in up-bottom and left-right order:
+            rows correspond here to left-right direction
+            columns correspond here to up-bottom directions */
+        switch (direction) {
+            case NORTH:
+                column = column - step;
+                break;
+            case WEST:
+                row = row - step;
+                break;
+            case SOUTH:
+                column = column + step;
+                break;
+            case EAST:
+                row = row + step;
+                break;
+            default:
+                break;
+        }
+        if (row >= 0 && row < this.rows && column >= 0 && column < this.columns) {
+            return row * this.columns + column;
+        }
+        return -1;
+    }
+
+
+    /*=========================================================================*/
+    /* Inner classes                                                           */
+    /*=========================================================================*/
+
+    /**
+     * Weak reference to a shared table, which remembers the size of the table
+     * so that it can be removed from the shared tables once reclaimed
+     */
+    private static final class TableReference extends WeakReference<NeighborTable> {
+        /** Size of the table, as keyed in the shared tables */
+        private final long key;
+
+        /**
+         * Constructor
+         * @param table - shared table
+         * @param key - size of the table
+         */
+        TableReference(NeighborTable table, long key) {
+            super(table, RECLAIMED);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package battleship2D.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Dense board keeping one byte per cell (the ordinal of its type) outside of the Java heap,
+ * so that batch jobs may keep millions of boards alive without the garbage collector
+ * having to mark their cells. Cells are stored in the order given by cellId().
+ * Small boards are carved out of shared direct buffers (slabs) rather than allocated
+ * one by one; a slab is released once every board using it is unreachable.
+ * A board only keeps a reference to its slab and the offset of its storage, which holds
+ * the number of cells of each type followed by the cells: nothing else is allocated per board,
+ * and its fleet keys the ship parts by cell rather than keeping an array as large as the board.
+ * Bulk operations (reset, replaceAll, searches) work on 8 cells at a time.
+ */
+public class OffHeapBoardModel extends AbstractBoardModel {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Size of a slab, in bytes */
+    private static final int SLAB_SIZE = 1 << 20;
+
+    /** Slab currently carved, and the offset of its first free byte */
+    private static ByteBuffer slab;
+    private static int slabOffset;
+
+    /** Number of random draws made by randomCell() before selecting amongst the matching cells */
+    private static final int MAX_RANDOM_DRAWS = 8;
+
+    /** Cell types, indexed with the bytes stored */
+    private static final CellType[] CELL_TYPES = CellType.values();
+
+    /** Size of the counts stored before the cells, in bytes, rounded up to a whole word */
+    private static final int COUNTS_SIZE = (CELL_TYPES.length * Integer.BYTES + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+
+    /** Lowest bit of every byte of a word, and the lowest 7 bits of every byte */
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    /** Direct buffer holding the storage of this board (possibly shared with other boards),
+     * in little-endian order so that cell i of a word is its byte i */
+    private final ByteBuffer cells;
+
+    /** Offset of cell 0 in the buffer, a multiple of 8; the number of cells of each type,
+     * indexed with CellType.ordinal(), is stored in the COUNTS_SIZE bytes before it */
+    private final int offset;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param cellType - default cell type for every board cell
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public OffHeapBoardModel(CellType cellType, int rows, int columns) {
+        super(cellType, rows, columns);
+
+        /* Storage carved out of the current slab, starting a new slab when it is full */
+        int size = (COUNTS_SIZE + rows * columns + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+        synchronized (OffHeapBoardModel.class) {
+            if (size > SLAB_SIZE / 8) {
+                this.cells = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+                this.offset = COUNTS_SIZE;
+            }
+            else {
+                if (slab == null || slabOffset + size > SLAB_SIZE) {
+                    slab = ByteBuffer.allocateDirect(SLAB_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                    slabOffset = 0;
+                }
+                this.cells = slab;
+                this.offset = slabOffset + COUNTS_SIZE;
+                slabOffset += size;
+            }
+        }
+
+        reset(this.defaultCellType);
+    }
+
+    @Override
+    public int countCellsOfType(CellType cellType) {
+        return count(cellType.ordinal());
+    }
+
+    @Override
+    public int findFirstCellOfType(CellType cellType) {
+        if (count(cellType.ordinal()) == 0) {
+            return -1;
+        }
+        int cellCount = this.rows * this.columns;
+        int fullWords = cellCount / Long.BYTES;
+        long pattern = pattern(cellType);
+
+        for (int word = 0; word < fullWords; word++) {
+            long matches = matchingBytes(this.cells.getLong(this.offset + word * Long.BYTES), pattern);
+            if (matches != 0) {
+                return word * Long.BYTES + Long.numberOfTrailingZeros(matches) / Byte.SIZE;
+            }
+        }
+        for (int cellId = fullWords * Long.BYTES; cellId < cellCount; cellId++) {
+            if (this.cells.get(this.offset + cellId) == cellType.ordinal()) {
+                return cellId;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isCellOfType(int cellId, CellType cellType) {
+        return this.cells.get(this.offset + cellId) == cellType.ordinal();
+    }
+
+    @Override
+    public int randomCell(CellType cellType, boolean isCellType) {
+        int cellCount = this.rows * this.columns;
+        int count = isCellType ? count(cellType.ordinal()) : cellCount - count(cellType.ordinal());
+        if (count == 0) {
+            return -1;
+        }
+
+        /* Matching cells usually cover most of the board: a few draws avoid scanning them */
+        for (int draw = 0; draw < MAX_RANDOM_DRAWS; draw++) {
+            int cellId = generator().nextInt(cellCount);
+            if ((this.cells.get(this.offset + cellId) == cellType.ordinal()) == isCellType) {
+                return cellId;
+            }
+        }
+
+        /* Selects the n-th matching cell, counting whole words first */
+        int n = generator().nextInt(count);
+        int fullWords = cellCount / Long.BYTES;
+        long pattern = pattern(cellType);
+        for (int word = 0; word < fullWords; word++) {
+            long matches = matchingBytes(this.cells.getLong(this.offset + word * Long.BYTES), pattern);
+            if (! isCellType) {
+                matches = ~matches & (LOW_BITS << 7);
+            }
+            int bits = Long.bitCount(matches);
+            if (n < bits) {
+                for (; n > 0; n--) {
+                    matches &= matches - 1;
+                }
+                return word * Long.BYTES + Long.numberOfTrailingZeros(matches) / Byte.SIZE;
+            }
+            n -= bits;
+        }
+        for (int cellId = fullWords * Long.BYTES; cellId < cellCount; cellId++) {
+            if ((this.cells.get(this.offset + cellId) == cellType.ordinal()) == isCellType && n-- == 0) {
+                return cellId;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void replaceAll(CellType oldCellType, CellType newCellType) {
+        if (oldCellType == newCellType || count(oldCellType.ordinal()) == 0) {
+            return;
+        }
+        int cellCount = this.rows * this.columns;
+        int fullWords = cellCount / Long.BYTES;
+        long oldPattern = pattern(oldCellType);
+        long newPattern = pattern(newCellType);
+
+        for (int word = 0; word < fullWords; word++) {
+            int offset = this.offset + word * Long.BYTES;
+            long value = this.cells.getLong(offset);
+            long matches = matchingBytes(value, oldPattern);
+            if (matches != 0) {
+                /* Spreads the high bit of each matching byte over the whole byte */
+                long mask = (matches >>> 7) * 0xFF;
+                this.cells.putLong(offset, (value & ~mask) | (newPattern & mask));
+            }
+        }
+        for (int cellId = fullWords * Long.BYTES; cellId < cellCount; cellId++) {
+            if (this.cells.get(this.offset + cellId) == oldCellType.ordinal()) {
+                this.cells.put(this.offset + cellId, (byte) newCellType.ordinal());
+            }
+        }
+        int moved = count(oldCellType.ordinal());
+        addCount(newCellType.ordinal(), moved);
+        addCount(oldCellType.ordinal(), -moved);
+    }
+
+    @Override
+    public final void reset(CellType cellType) {
+        int cellCount = this.rows * this.columns;
+        int fullWords = cellCount / Long.BYTES;
+        long pattern = pattern(cellType);
+
+        for (int word = 0; word < fullWords; word++) {
+            this.cells.putLong(this.offset + word * Long.BYTES, pattern);
+        }
+        for (int cellId = fullWords * Long.BYTES; cellId < cellCount; cellId++) {
+            this.cells.put(this.offset + cellId, (byte) cellType.ordinal());
+        }
+        for (int ordinal = 0; ordinal < CELL_TYPES.length; ordinal++) {
+            this.cells.putInt(countOffset(ordinal), 0);
+        }
+        this.cells.putInt(countOffset(cellType.ordinal()), cellCount);
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    @Override
+    public CellType getCellType(int cellId) {
+        return CELL_TYPES[this.cells.get(this.offset + cellId)];
+    }
+
+    @Override
+    public void setCellType(int cellId, CellType cellType) {
+        addCount(this.cells.get(this.offset + cellId), -1);
+        this.cells.put(this.offset + cellId, (byte) cellType.ordinal());
+        addCount(cellType.ordinal(), 1);
+    }
+
+
+    /*=========================================================================*/
+    /* Protected methods                                                       */
+    /*=========================================================================*/
+
+    /**
+     * @return a new fleet keying its ship parts by cell in a map, so that the heap taken
+     * by the board does not grow with its size
+     */
+    @Override
+    protected Fleet newFleet() {
+        return new Fleet(true);
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Adds a value to the number of cells of a type
+     * @param ordinal - ordinal of the cell type
+     * @param delta - value to add
+     */
+    private void addCount(int ordinal, int delta) {
+        int countOffset = countOffset(ordinal);
+        this.cells.putInt(countOffset, this.cells.getInt(countOffset) + delta);
+    }
+
+    /**
+     * @return the number of cells of a type
+     * @param ordinal - ordinal of the cell type
+     */
+    private int count(int ordinal) {
+        return this.cells.getInt(countOffset(ordinal));
+    }
+
+    /**
+     * @return the offset in the buffer of the number of cells of a type
+     * @param ordinal - ordinal of the cell type
+     */
+    private int countOffset(int ordinal) {
+        return this.offset - COUNTS_SIZE + ordinal * Integer.BYTES;
+    }
+
+    /**
+     * @return a word whose 8 bytes are all equal to the ordinal of a cell type
+     * @param cellType - cell type to repeat
+     */
+    private static long pattern(CellType cellType) {
+        return LOW_BITS * cellType.ordinal();
+    }
+
+    /**
+     * @return a word in which the high bit of a byte is set when the same byte of value equals
+     * the same byte of pattern, every other bit being cleared
+     * @param value - 8 cells
+     * @param pattern - value of pattern() for the cell type to search for
+     */
+    private static long matchingBytes(long value, long pattern) {
+        long difference = value ^ pattern;
+        /* Exact test for zero bytes: no borrow crosses a byte boundary */
+        long nonZero = ((difference & LOW_7_BITS) + LOW_7_BITS) | difference;
+        return ~(nonZero | LOW_7_BITS);
+    }
+}
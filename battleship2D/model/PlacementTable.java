@@ -0,0 +1,198 @@
+package battleship2D.model;
+
+import java.util.Random;
+
+/**
+ * Every axis-aligned placement of a ship of a given length on a board,
+ * with the live subset of the placements which are still legal.
+ * A placement is identified by its first cell: identifiers [0, cells[ are the horizontal
+ * placements, [cells, 2 * cells[ the vertical ones, so that the placements covering a cell
+ * form two index ranges and are found without any stored list.
+ * The legal subset supports constant time removal and uniform sampling; each removal is
+ * logged, so that the subset can be rolled back to a previous state.
+ */
+public class PlacementTable {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Board dimensions */
+    private final int rows, columns;
+
+    /** Ship length */
+    private final int length;
+
+    /** Legal placements, in no particular order, and their number */
+    private final int[] legal;
+    private int size;
+
+    /** Position of each placement in legal, -1 if the placement is not legal */
+    private final int[] positions;
+
+    /** Placements removed from the legal subset, in removal order */
+    private int[] removals;
+    private int removalCount;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor: every placement is legal at first
+     * @param rows - number of rows
+     * @param columns - number of columns
+     * @param length - ship length
+     */
+    public PlacementTable(int rows, int columns, int length) {
+        this.rows = rows;
+        this.columns = columns;
+        this.length = length;
+        this.legal = new int[2 * rows * columns];
+        this.positions = new int[2 * rows * columns];
+        this.removals = new int[64];
+        reset();
+    }
+
+    /**
+     * Removes every placement covering a cell
+     * @param cellId - cell which is not available anymore
+     */
+    public void block(int cellId) {
+        int row = cellId / this.columns;
+        int column = cellId % this.columns;
+
+        for (int k = 0; k < this.length && k <= column; k++) {
+            remove(cellId - k);
+        }
+        /* A single-cell ship is only stored once, as horizontal */
+        if (this.length > 1) {
+            for (int k = 0; k < this.length && k <= row; k++) {
+                remove(this.rows * this.columns + cellId - k * this.columns);
+            }
+        }
+    }
+
+    /**
+     * @return true if a placement is currently legal
+     * @param placement - placement identifier
+     */
+    public boolean isLegal(int placement) {
+        return this.positions[placement] >= 0;
+    }
+
+    /**
+     * @return the current position in the removal log, to be given to rollback()
+     */
+    public int mark() {
+        return this.removalCount;
+    }
+
+    /**
+     * Removes a placement from the legal subset, if it is legal
+     * @param placement - placement identifier
+     */
+    public void remove(int placement) {
+        int position = this.positions[placement];
+        if (position < 0) {
+            return;
+        }
+        int last = this.legal[--this.size];
+        this.legal[position] = last;
+        this.positions[last] = position;
+        this.positions[placement] = -1;
+
+        if (this.removalCount == this.removals.length) {
+            int[] grown = new int[this.removals.length * 2];
+            System.arraycopy(this.removals, 0, grown, 0, this.removalCount);
+            this.removals = grown;
+        }
+        this.removals[this.removalCount++] = placement;
+    }
+
+    /**
+     * Makes every placement legal again, when it fits inside the board, and clears the removal log
+     */
+    public final void reset() {
+        int cells = this.rows * this.columns;
+        this.size = 0;
+        this.removalCount = 0;
+        for (int placement = 0; placement < 2 * cells; placement++) {
+            this.positions[placement] = -1;
+            if (fits(placement)) {
+                this.positions[placement] = this.size;
+                this.legal[this.size++] = placement;
+            }
+        }
+    }
+
+    /**
+     * Puts back the placements removed since a mark, in reverse order
+     * @param mark - value returned by mark()
+     */
+    public void rollback(int mark) {
+        while (this.removalCount > mark) {
+            int placement = this.removals[--this.removalCount];
+            this.positions[placement] = this.size;
+            this.legal[this.size++] = placement;
+        }
+    }
+
+    /**
+     * @return a legal placement chosen uniformly, -1 if there is none
+     * @param random - random generator
+     */
+    public int sample(Random random) {
+        return (this.size > 0) ? this.legal[random.nextInt(this.size)] : -1;
+    }
+
+    /**
+     * @return the number of legal placements
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the first cell of a placement
+     * @param placement - placement identifier
+     */
+    public int start(int placement) {
+        int cells = this.rows * this.columns;
+        return (placement < cells) ? placement : placement - cells;
+    }
+
+    /**
+     * @return the distance between two consecutive cells of a placement
+     * @param placement - placement identifier
+     */
+    public int stride(int placement) {
+        return (placement < this.rows * this.columns) ? 1 : this.columns;
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public int getLength() {
+        return this.length;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * @return true if a placement stays inside the board
+     * @param placement - placement identifier
+     * @see reset()
+     */
+    private boolean fits(int placement) {
+        int cells = this.rows * this.columns;
+        if (placement < cells) {
+            return placement % this.columns + this.length <= this.columns;
+        }
+        return this.length > 1 && (placement - cells) / this.columns + this.length <= this.rows;
+    }
+}
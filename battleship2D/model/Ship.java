@@ -19,6 +19,12 @@ public class Ship {
     /** Ship's size in cells */
     private int size;
     
+    /** Identifiers of the cells occupied by the ship, from one end to the other (empty until placed) */
+    private int[] cellIds;
+    
+    /** Bit i is set once the i-th part of the ship has been hit */
+    private long hitMask;
+    
     
     /*=========================================================================*/
     /* Public methods                                                          */       
@@ -30,8 +36,39 @@ public class Ship {
      */
     public Ship (ShipType shipType) {
         this.shipType = shipType;  
+        this.cellIds = new int[0];
+        this.hitMask = 0;
         initShip();
     }
+    
+    /**
+     * Records a hit on one part of the ship
+     * @param part - index of the part in the ship, from 0 to size - 1
+     * @return true if the ship is now destroyed
+     */
+    public boolean hit(int part) {
+        this.hitMask |= 1L << part;
+        return isDestroyed();
+    }
+    
+    /**
+     * Records a hit on the first part which has not been hit yet,
+     * when the location of the ship does not matter
+     * @return true if the ship is now destroyed
+     */
+    public boolean hitNextPart() {
+        /* Sets the lowest bit which is not set yet */
+        this.hitMask |= this.hitMask + 1;
+        this.hitMask &= fullMask();
+        return isDestroyed();
+    }
+    
+    /**
+     * @return true if every part of the ship has been hit
+     */
+    public boolean isDestroyed() {
+        return this.hitMask == fullMask();
+    }
 
     
     /* 
@@ -50,10 +87,38 @@ public class Ship {
         return this.description;
     }
     
+    /**
+     * @return the identifiers of the cells occupied by the ship (not to be modified)
+     */
+    public int[] getCellIds() {
+        return this.cellIds;
+    }
+    
+    public long getHitMask() {
+        return this.hitMask;
+    }
+    
+    /**
+     * Records the location of the ship and forgets previous hits
+     * @param cellIds - identifiers of the occupied cells, from one end to the other
+     * @see Fleet#placeShip(Ship, int[])
+     */
+    final void setCellIds(int[] cellIds) {
+        this.cellIds = cellIds;
+        this.hitMask = 0;
+    }
+    
     /*=========================================================================*/
     /* Private methods                                                         */       
     /*=========================================================================*/
     
+    /**
+     * @return the hit mask of a destroyed ship
+     */
+    private long fullMask() {
+        return (1L << this.size) - 1;
+    }
+    
     /**
      * Sets Ship's characteristics
      * @see Ship()
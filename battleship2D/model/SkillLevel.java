@@ -2,6 +2,10 @@ package battleship2D.model;
 
 /**
  * Determines the computer skill level
+ * Each level comes with a default wall-clock budget per move (ms), which caps
+ * the searches of the anytime levels; the other levels are far below it anyway.
+ * The first targets of the PROBABILITY level come from an opening book, which MONTE_CARLO
+ * and EXACT borrow as well: their opening moves are PROBABILITY moves.
  * @author xskapin
  */
 public enum SkillLevel {
@@ -9,7 +13,34 @@ public enum SkillLevel {
     /* Members                                                                 */
     /*=========================================================================*/
 
-    BEGINNER, /* The computer only remembers the player's cells already hit by a missile */
-    MEDIUM,   /* The computer targets successive cells in a row or a column, starting with a ship hit by a missile */
-    EXPERT    /* The computers searches for the regions that have the maximum likelihood to contain a ship */
+    BEGINNER(5), /* The computer only remembers the player's cells already hit by a missile */
+    MEDIUM(5),   /* The computer targets successive cells in a row or a column, starting with a ship hit by a missile */
+    EXPERT(20),  /* The computers searches for the regions that have the maximum likelihood to contain a ship */
+    PROBABILITY(50), /* The computer counts the possible locations of the remaining ships and targets the most covered cell */
+    MONTE_CARLO(250), /* The computer draws many random fleets consistent with its observations and targets the most covered cell */
+    EXACT(250);  /* The computer enumerates every fleet consistent with its observations and targets the most covered cell */
+
+    /** Default wall-clock budget of a move (ms) */
+    private final long moveBudget;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param moveBudget - default wall-clock budget of a move (ms)
+     */
+    SkillLevel(long moveBudget) {
+        this.moveBudget = moveBudget;
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public long getMoveBudget() {
+        return this.moveBudget;
+    }
 }
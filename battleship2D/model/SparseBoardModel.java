@@ -0,0 +1,324 @@
+package battleship2D.model;
+
+import java.util.Arrays;
+
+/**
+ * Board for very large oceans: only the cells whose type differs from the implicit type
+ * (ships, shots, highlights...) are stored, in an open addressing hash map from cell identifier
+ * to cell type; every other cell is implicitly of the implicit type, which is set by reset().
+ * Memory is then proportional to the number of cells touched, not to the board area,
+ * and so is the index of the ship parts kept by the fleet.
+ */
+public class SparseBoardModel extends AbstractBoardModel {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Marks a free slot in keys */
+    private static final int FREE = -1;
+
+    /** Initial number of slots, a power of 2 */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Number of random draws made by randomCell() before enumerating the matching cells */
+    private static final int MAX_RANDOM_DRAWS = 64;
+
+    /** Cell types, indexed with the values stored in the map */
+    private static final CellType[] CELL_TYPES = CellType.values();
+
+    /** Type of every cell not stored in the map */
+    private CellType implicitCellType;
+
+    /** Cell identifiers (FREE for a free slot) and the ordinal of their type */
+    private int[] keys;
+    private byte[] values;
+
+    /** Number of cells stored */
+    private int size;
+
+    /** Number of cells stored for each type, indexed with CellType.ordinal() */
+    private final int[] storedCounts;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param cellType - default cell type for every board cell
+     * @param rows - number of rows
+     * @param columns - number of columns
+     */
+    public SparseBoardModel(CellType cellType, int rows, int columns) {
+        super(cellType, rows, columns);
+        this.storedCounts = new int[CELL_TYPES.length];
+
+        reset(this.defaultCellType);
+    }
+
+    @Override
+    public int countCellsOfType(CellType cellType) {
+        int count = this.storedCounts[cellType.ordinal()];
+        if (cellType == this.implicitCellType) {
+            count += this.rows * this.columns - this.size;
+        }
+        return count;
+    }
+
+    @Override
+    public int findFirstCellOfType(CellType cellType) {
+        if (cellType == this.implicitCellType) {
+            /* At most size + 1 cells to check */
+            for (int cellId = 0; cellId < this.rows * this.columns; cellId++) {
+                if (findSlot(cellId) < 0) {
+                    return cellId;
+                }
+            }
+            return -1;
+        }
+
+        int first = -1;
+        if (this.storedCounts[cellType.ordinal()] > 0) {
+            for (int slot = 0; slot < this.keys.length; slot++) {
+                if (this.keys[slot] != FREE && this.values[slot] == cellType.ordinal()
+                        && (first < 0 || this.keys[slot] < first)) {
+                    first = this.keys[slot];
+                }
+            }
+        }
+        return first;
+    }
+
+    @Override
+    public int randomCell(CellType cellType, boolean isCellType) {
+        int count = countCellsOfType(cellType);
+        if (! isCellType) {
+            count = this.rows * this.columns - count;
+        }
+        if (count == 0) {
+            return -1;
+        }
+
+        /* Matching cells are all stored: picks the n-th of them in slot order */
+        if ((cellType == this.implicitCellType) != isCellType) {
+            int n = generator().nextInt(count);
+            for (int slot = 0; slot < this.keys.length; slot++) {
+                if (this.keys[slot] != FREE && (this.values[slot] == cellType.ordinal()) == isCellType && n-- == 0) {
+                    return this.keys[slot];
+                }
+            }
+            return -1;
+        }
+
+        /* Matching cells include the implicit ones, which usually cover most of the board */
+        for (int draw = 0; draw < MAX_RANDOM_DRAWS; draw++) {
+            int cellId = generator().nextInt(this.rows * this.columns);
+            if ((getCellType(cellId) == cellType) == isCellType) {
+                return cellId;
+            }
+        }
+        int n = generator().nextInt(count);
+        for (int cellId = 0; cellId < this.rows * this.columns; cellId++) {
+            if ((getCellType(cellId) == cellType) == isCellType && n-- == 0) {
+                return cellId;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void replaceAll(CellType oldCellType, CellType newCellType) {
+        if (oldCellType == newCellType) {
+            return;
+        }
+        if (oldCellType == this.implicitCellType) {
+            /* The cells stored with the new type become implicit as well */
+            this.implicitCellType = newCellType;
+            removeAll(newCellType);
+        }
+        else if (newCellType == this.implicitCellType) {
+            removeAll(oldCellType);
+        }
+        else {
+            for (int slot = 0; slot < this.keys.length; slot++) {
+                if (this.keys[slot] != FREE && this.values[slot] == oldCellType.ordinal()) {
+                    this.values[slot] = (byte) newCellType.ordinal();
+                }
+            }
+            this.storedCounts[newCellType.ordinal()] += this.storedCounts[oldCellType.ordinal()];
+            this.storedCounts[oldCellType.ordinal()] = 0;
+        }
+    }
+
+    /**
+     * Resets board's contents to default value: no cell is stored anymore
+     * @param cellType - default value
+     */
+    @Override
+    public final void reset(CellType cellType) {
+        this.implicitCellType = cellType;
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new byte[INITIAL_CAPACITY];
+        Arrays.fill(this.keys, FREE);
+        Arrays.fill(this.storedCounts, 0);
+        this.size = 0;
+    }
+
+    /**
+     * @return the number of cells actually stored
+     */
+    public int storedCells() {
+        return this.size;
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    @Override
+    public CellType getCellType(int cellId) {
+        int slot = findSlot(cellId);
+        return (slot >= 0) ? CELL_TYPES[this.values[slot]] : this.implicitCellType;
+    }
+
+    @Override
+    public void setCellType(int cellId, CellType cellType) {
+        int slot = findSlot(cellId);
+        if (slot >= 0) {
+            this.storedCounts[this.values[slot]]--;
+            if (cellType == this.implicitCellType) {
+                removeSlot(slot);
+            }
+            else {
+                this.values[slot] = (byte) cellType.ordinal();
+                this.storedCounts[cellType.ordinal()]++;
+            }
+        }
+        else if (cellType != this.implicitCellType) {
+            insert(cellId, cellType.ordinal());
+        }
+    }
+
+    public CellType getImplicitCellType() {
+        return this.implicitCellType;
+    }
+
+
+    /*=========================================================================*/
+    /* Protected methods                                                       */
+    /*=========================================================================*/
+
+    /**
+     * @return a new fleet keying its ship parts by cell in a map, which only grows with the ships
+     */
+    @Override
+    protected Fleet newFleet() {
+        return new Fleet(true);
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * @return the slot where the search for a cell starts
+     * @param cellId - cell to deal with
+     */
+    private int homeSlot(int cellId) {
+        int hash = cellId * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (this.keys.length - 1);
+    }
+
+    /**
+     * @return the slot storing a cell, -1 if the cell is not stored
+     * @param cellId - cell to search for
+     */
+    private int findSlot(int cellId) {
+        int mask = this.keys.length - 1;
+        for (int slot = homeSlot(cellId); this.keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (this.keys[slot] == cellId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a cell which is not stored yet, growing the map when it is two thirds full
+     * @param cellId - cell to store
+     * @param type - ordinal of the cell type
+     */
+    private void insert(int cellId, int type) {
+        if (3 * (this.size + 1) > 2 * this.keys.length) {
+            rehash(this.keys.length * 2, null);
+        }
+        int mask = this.keys.length - 1;
+        int slot = homeSlot(cellId);
+        while (this.keys[slot] != FREE) {
+            slot = (slot + 1) & mask;
+        }
+        this.keys[slot] = cellId;
+        this.values[slot] = (byte) type;
+        this.storedCounts[type]++;
+        this.size++;
+    }
+
+    /**
+     * Removes every stored cell of a given type, which becomes implicit
+     * @param cellType - type to remove
+     * @see replaceAll()
+     */
+    private void removeAll(CellType cellType) {
+        int remaining = this.size - this.storedCounts[cellType.ordinal()];
+        int capacity = INITIAL_CAPACITY;
+        while (3 * remaining > 2 * capacity) {
+            capacity *= 2;
+        }
+        rehash(capacity, cellType);
+    }
+
+    /**
+     * Frees a slot, moving back the following cells of its cluster so that
+     * no search stops too early (deletion without tombstones)
+     * @param slot - slot to free
+     */
+    private void removeSlot(int slot) {
+        int mask = this.keys.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; this.keys[next] != FREE; next = (next + 1) & mask) {
+            /* The cell may fill the free slot if the free slot lies between its home slot and its slot */
+            int home = homeSlot(this.keys[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                this.keys[free] = this.keys[next];
+                this.values[free] = this.values[next];
+                free = next;
+            }
+        }
+        this.keys[free] = FREE;
+        this.size--;
+    }
+
+    /**
+     * Moves the stored cells into a map of another capacity
+     * @param capacity - new number of slots, a power of 2
+     * @param removedCellType - type of the cells to drop on the way, null to keep every cell
+     */
+    private void rehash(int capacity, CellType removedCellType) {
+        int[] oldKeys = this.keys;
+        byte[] oldValues = this.values;
+        this.keys = new int[capacity];
+        this.values = new byte[capacity];
+        Arrays.fill(this.keys, FREE);
+        Arrays.fill(this.storedCounts, 0);
+        this.size = 0;
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != FREE
+                    && (removedCellType == null || oldValues[slot] != removedCellType.ordinal())) {
+                insert(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package battleship2D.ui;
 
 import battleship2D.model.CellModel;
-import battleship2D.model.CellType;
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import javafx.animation.FadeTransition;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.value.ObservableValue;
 import javafx.geometry.HPos;
 import javafx.geometry.VPos;
 import javafx.scene.effect.Light;
@@ -28,16 +26,13 @@ public class CellUI extends Region {
     /** Related cell model */
     private final CellModel cellModel;
     
-    /** Cell color depends on the related cell model */
-    private SimpleStringProperty cellModelColorProperty = null;
+    /** Cell color depends on the related cell model, once this listener is registered */
+    private PropertyChangeListener cellModelListener = null;
     
     /** Appearance attributes*/
     private Region highlight;    
     private FadeTransition highlightTransition;
     
-    /** Type of the last ship which has been hit by a missile */
-    private CellType lastHit = CellType.UNKNOWN;
-
     /** Listeners management */
     private final PropertyChangeSupport pcsListeners = new PropertyChangeSupport(this);   
     
@@ -64,54 +59,14 @@ public class CellUI extends Region {
     }
     
     /**
-     * Updates the type of the related CellModel with regard to its current state
+     * Shows the current type of the related CellModel, and follows its changes from now on
      */
-    public void updateAfterMissile() {
+    public void reveal() {
         /* Depending on the associated BoardUI, the color of this cell 
             may not be bound to its related CellModel at creation. 
             This bind is now realized.
         */
         bindCellModelColor();
-        
-        switch (this.cellModel.getCellType()) {
-            case BATTLESHIP:
-                this.lastHit = CellType.BATTLESHIP;
-                this.cellModel.setCellType(CellType.HIT);
-                break;
-                
-            case CARRIER:
-                this.lastHit = CellType.CARRIER;
-                this.cellModel.setCellType(CellType.HIT);
-                break;
-                
-            case CRUISER:
-                this.lastHit = CellType.CRUISER;
-                this.cellModel.setCellType(CellType.HIT);
-                break;
-                
-            case DESTROYER:
-                this.lastHit = CellType.DESTROYER;
-                this.cellModel.setCellType(CellType.HIT);
-                break;
-                
-            case SUBMARINE:
-                this.lastHit = CellType.SUBMARINE;
-                this.cellModel.setCellType(CellType.HIT);
-                break;
-                
-            case UNKNOWN:
-                this.lastHit = CellType.UNKNOWN;
-                this.cellModel.setCellType(CellType.OCEAN);
-                break;
-                
-            case OCEAN:
-                this.lastHit = CellType.OCEAN;
-                break;
-                
-            default:
-                this.lastHit = CellType.UNKNOWN;
-                break;
-        }
     }
     
     /*
@@ -132,16 +87,6 @@ public class CellUI extends Region {
     public CellModel getCellModel() {
         return this.cellModel;
     }
-    
-    public CellType getLastHit() {
-        return this.lastHit;
-    }
-    
-    public boolean isLastHitAShip() {
-        return this.lastHit == CellType.BATTLESHIP || this.lastHit == CellType.CARRIER
-                || this.lastHit == CellType.CRUISER || this.lastHit == CellType.DESTROYER
-                || this.lastHit == CellType.SUBMARINE;
-    }
 
     
     /*=========================================================================*/
@@ -217,16 +162,18 @@ public class CellUI extends Region {
      * @see setStyle()
      */
     private void bindCellModelColor() {
-        this.cellModelColorProperty = new SimpleStringProperty();
-        this.cellModelColorProperty.bind(this.cellModel.getColorProperty());
-
+        if (this.cellModelListener != null) {
+            return;
+        }
+        
         /* Initializes style */
-        styleProperty().setValue(stylePrefix.concat(this.cellModelColorProperty.getValue()));
+        styleProperty().setValue(stylePrefix.concat(this.cellModel.getCellType().getAppearance()));
 
         /* Propagate each cell model type modification to this.styleProperty */
-        this.cellModelColorProperty.addListener((ObservableValue<? extends String> observable, String oldValue, String newValue) -> {            
-            styleProperty().setValue(stylePrefix.concat(this.cellModelColorProperty.getValue()));
-        });
+        this.cellModelListener = (PropertyChangeEvent propertyChangeEvent) -> {
+            styleProperty().setValue(stylePrefix.concat(this.cellModel.getCellType().getAppearance()));
+        };
+        this.cellModel.addPropertyChangeListener(this.cellModelListener);
     }
     
     /**
@@ -263,7 +210,7 @@ public class CellUI extends Region {
             bindCellModelColor();        
         }
         else {
-            styleProperty().setValue(stylePrefix.concat(this.cellModel.getColorProperty().getValue()));
+            styleProperty().setValue(stylePrefix.concat(this.cellModel.getCellType().getAppearance()));
         }
     }
     
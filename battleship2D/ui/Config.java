@@ -14,6 +14,12 @@ public class Config {
     /** Default computer skill level */
     public static final SkillLevel level = SkillLevel.EXPERT;
     
+    /** Maximum number of random fleets drawn per missile, in the Monte Carlo skill level */
+    public static final int monteCarloSamples = 20000;
+    
+    /** Maximum time spent searching the target of a computer missile (ms), before a random one is used */
+    public static final long computerTurnDeadline = 2000;
+    
     /**
      * Constructor
      */
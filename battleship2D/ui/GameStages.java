@@ -11,5 +11,6 @@ public enum GameStages {
     
     PLACE_SHIPS_ON_PLAYER_BOARD, /* Lets the user place its ships on the board */
     INIT_COMPUTER_BOARD,  /* Shows the computer board */
-    PLAY /* Both player and computer target their foes and launch missiles each other in turn */
+    PLAY, /* Both player and computer target their foes and launch missiles each other in turn */
+    END_GAME /* The end game animation is displayed: no missile is resolved anymore */
 }
@@ -221,8 +221,8 @@ public abstract class BoardUIController  {
      * @see BoardUI()
      */
     private void initCells(Boolean isBound) {
-        for (int row = 0; row < BoardModel.BOARD_SIZE; row++) {        
-            for (int column = 0; column < BoardModel.BOARD_SIZE; column++) {
+        for (int row = 0; row < this.boardModel.getRows(); row++) {        
+            for (int column = 0; column < this.boardModel.getColumns(); column++) {
                 CellUI cellUI = new CellUI(this.boardModel.getCellModel(row, column), isBound);                
                 add(cellUI, row, column);
                 cellUI.addPropertyChangeListener(this.propertyChangeListener);
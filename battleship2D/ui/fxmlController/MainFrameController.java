@@ -5,7 +5,9 @@
  */
 package battleship2D.ui.fxmlController;
 
-import battleship2D.model.BoardModel;
+import battleship2D.engine.ComputerTurnScheduler;
+import battleship2D.engine.GameEngine;
+import battleship2D.engine.ShotResult;
 import battleship2D.model.CellType;
 import battleship2D.model.ShipType;
 import battleship2D.model.Turn;
@@ -16,6 +18,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.net.URL;
 import java.util.ResourceBundle;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.layout.BorderPane;
@@ -85,8 +88,10 @@ public class MainFrameController implements Initializable {
     private GameStages gameStage;
     /** This class listens for each of its boards and the missile class */
     private PropertyChangeListener propertyChangeListener;
-    /** Opponents turns */
-    private Turn turn;/** End game animation */
+    /** Rules of the game: this class is one of its observers */
+    private GameEngine gameEngine;
+    /** Searches the computer targets away from the JavaFX Application Thread */
+    private ComputerTurnScheduler computerTurnScheduler;
     
     /** Missiles sent by boards */
     private  Missile missile;
@@ -109,16 +114,20 @@ public class MainFrameController implements Initializable {
         theme.setCycleCount(MediaPlayer.INDEFINITE);
         theme.play();
         
-        playerController.construct("Player", new BoardModel(CellType.OCEAN), true);
+        this.gameEngine = new GameEngine(Config.level);
+        this.gameEngine.getComputerPlayer().setMonteCarloSamples(Config.monteCarloSamples);
+        this.computerTurnScheduler = new ComputerTurnScheduler(this.gameEngine, Platform::runLater);
+        
+        playerController.construct("Player", this.gameEngine.getPlayerBoardModel(), true);
         this.shipInsertionController.construct(this.playerController.getBoardModel().getFleet());
-        this.computerController.construct("Computer", new BoardModel(CellType.UNKNOWN), 
-                false, Config.level);   
+        this.computerController.construct("Computer", this.gameEngine.getComputerBoardModel(), false);   
         
         this.missile = new Missile();       
         this.explosionController.construct(20,20);      
         
         initRoot();
         initListener();
+        initGameEngine();
         initPlayerBoard();        
         initShipSelection(); 
         initExplosion();
@@ -127,7 +136,6 @@ public class MainFrameController implements Initializable {
         this.missileSourceY = new SimpleDoubleProperty(0);
         this.missileDestX = new SimpleDoubleProperty(0);
         this.missileDestY = new SimpleDoubleProperty(0);
-        this.turn = Turn.PLAYER;
     } 
     
 /*=========================================================================*/
@@ -148,7 +156,11 @@ public class MainFrameController implements Initializable {
                 break;
                 
             case PLAY:
-                if (this.turn == Turn.PLAYER) {
+                if (this.gameEngine.isGameOver()) {
+                    /* The end game animation has taken over */
+                    break;
+                }
+                if (this.gameEngine.getTurn() == Turn.PLAYER) {
                     /* Enables player interactivity */
                     this.borderPane.setMouseTransparent(false);
                     
@@ -187,21 +199,10 @@ public class MainFrameController implements Initializable {
                         }
                     }
                     
-                    /* A cell is randomly chosen to be the destination of the computer missile. */                    
-                    Coord2D cellCoords = this.computerController.findMissileDestinationCell();
-                    CellModel destCellModel = this.playerController.getBoardModel().getCellModel(cellCoords.getRow(), cellCoords.getColumn());
-
-                    if (destCellModel != null) {
-                        CellUI cellUI = this.playerController.findCellUIFromModel(destCellModel);
-                        if (cellUI != null) {
-                            this.playerController.setMissileDestination(cellUI);
-                            launchMissiles(this.playerController, this.computerController);
-                            
-                            /* The computer board keeps a copy of the type of the targeted cell in the player board. */
-                            this.computerController.getLastCellTargeted().setCellType(cellUI.getCellModel().getCellType());
-                            
-                        }
-                    }
+                    /* The computer chooses the destination of its missile, on another thread:
+                        the missile is launched once the target comes back on this thread. */
+                    this.computerTurnScheduler.requestComputerTarget(Config.computerTurnDeadline,
+                                                                     this::launchComputerMissile);
                 }
                 break;
                 
@@ -242,35 +243,46 @@ public class MainFrameController implements Initializable {
     /* Private methods                                                         */       
     /*=========================================================================*/
 
+    /**
+     * Launches the computer missile towards the target it has chosen
+     * @param cellCoords - target in the player board, null if none has been found
+     * @see changeState()
+     */
+    private void launchComputerMissile(Coord2D cellCoords) {
+        if (cellCoords == null || this.gameEngine.isGameOver() || this.gameStage == GameStages.END_GAME) {
+            return;
+        }
+        CellModel destCellModel = this.playerController.getBoardModel().getCellModel(cellCoords.getRow(), cellCoords.getColumn());
+
+        if (destCellModel != null) {
+            CellUI cellUI = this.playerController.findCellUIFromModel(destCellModel);
+            if (cellUI != null) {
+                this.playerController.setMissileDestination(cellUI);
+                launchMissiles(this.playerController, this.computerController);
+
+                /* The flight leaves time to prepare the next decision, whatever the outcome */
+                this.computerTurnScheduler.speculate(cellCoords);
+            }
+        }
+    }
+
     /**
      * Displays information about the last ship hit by a missile
      * @param boardUI - hit board
-     * @param shipType - the kind of ship that was hit
+     * @param shotResult - outcome of the missile
      * @see initListener()
      */
-    private void displayLastHitInfo(BoardUIController boardUI, ShipType shipType) {
-        Fleet fleet = boardUI.getBoardModel().getFleet();
-        Ship hitShip = fleet.findShipFromType(shipType);        
+    private void displayLastHitInfo(BoardUIController boardUI, ShotResult shotResult) {
+        Ship hitShip = shotResult.getShip();
         
         if (hitShip != null) {           
             this.msgController.append("[" + boardUI.getName() + "] A flower just got old !\n");
             
-            if (fleet.isLastHitShipDestroyed()) {
+            if (shotResult.isShipDestroyed()) {
                 this.msgController.append("[" + boardUI.getName() + "] " + hitShip.getDescription() + " withered away !!\n");
                 
-                /* If the destroyed ship was part of the player's fleet, notifies the computer side */
-                if (boardUI == this.playerController) {
-                    this.computerController.updateInfoAboutAdverseDestroyedShip(hitShip.getDescription());
-                }
-                
-                if (fleet.isFleetDestroyed()) {
+                if (shotResult.isFleetDestroyed()) {
                     this.msgController.append("[" + boardUI.getName() + "] " + "All the flowers died!!!\n");
-                    if (boardUI == this.playerController) {
-                        runEndGame(false);
-                    }
-                    else {
-                        runEndGame(true);
-                    }
                 }
             }
         }        
@@ -310,7 +322,7 @@ public class MainFrameController implements Initializable {
         this.computerController.setVisible(true);
         
         /* And its ships are randomly placed on without any user action. */
-        this.computerController.placeShipsOnBoardAtRandom();
+        this.gameEngine.start();
         
         /* The computer board can now send signals to this. */
         this.computerController.addPropertyChangeListener(this.propertyChangeListener);
@@ -357,6 +369,9 @@ public class MainFrameController implements Initializable {
             if (this.gameStage ==  GameStages.PLACE_SHIPS_ON_PLAYER_BOARD) {
                 manageEventsPlaceShipsOnPlayerBoard(propertyChangeEvent);
             }
+            else if (this.gameStage == GameStages.END_GAME) {
+                /* The end game has started (possibly skipped to): a missile still in flight is not resolved */
+            }
             else {  
                 String property = propertyChangeEvent.getPropertyName();
 
@@ -365,37 +380,47 @@ public class MainFrameController implements Initializable {
                     launchMissiles(this.computerController, this.playerController);
                 }
  
-               /* After the missile animation */
+               /* After the missile animation, the game engine resolves the missile */
                 if ("missileTargetReached".equals(property)) { 
-                    if (this.turn == Turn.COMPUTER) {
-                        CellUI destCellUI = this.playerController.getMissileDestination();
-                        destCellUI.updateAfterMissile();
-                        if (destCellUI.isLastHitAShip()) {
-                            ShipType shipType = CellType.cellTypeToShipType(destCellUI.getLastHit());
-                            this.playerController.getBoardModel().getFleet().updateHits(shipType);
-                            showExplosion(this.playerController);
-                            displayLastHitInfo(this.playerController, shipType);
-                        }
-                        this.turn = Turn.PLAYER;
+                    BoardUIController destBoardUI = (this.gameEngine.getTurn() == Turn.COMPUTER) ? 
+                            this.playerController : this.computerController;
+                    CellModel destCellModel = destBoardUI.getMissileDestination().getCellModel();
+                    Coord2D cellCoords = destBoardUI.getBoardModel().cellCoords(destCellModel);
+                    this.gameEngine.fire(cellCoords.getRow(), cellCoords.getColumn());
+                    changeState(GameStages.PLAY);
+                }
+                
+                /* The game engine has resolved a missile */
+                if ("gameEngineShot".equals(property)) {
+                    ShotResult shotResult = (ShotResult) propertyChangeEvent.getNewValue();
+                    BoardUIController destBoardUI = (shotResult.getShooter() == Turn.COMPUTER) ? 
+                            this.playerController : this.computerController;
+                    CellUI destCellUI = destBoardUI.findCellUIFromModel(shotResult.getCellModel());
+                    if (destCellUI != null) {
+                        destCellUI.reveal();
                     }
-                    else if (this.turn == Turn.PLAYER) {
-                        CellUI destCellUI = this.computerController.getMissileDestination();
-                        destCellUI.updateAfterMissile();
-                        if (destCellUI.isLastHitAShip()) {
-                            ShipType shipType = CellType.cellTypeToShipType(destCellUI.getLastHit());
-                            this.computerController.getBoardModel().getFleet().updateHits(shipType);
-                            showExplosion(this.computerController);
-                            displayLastHitInfo(this.computerController, shipType);                            
-                        }
-                        this.turn = Turn.COMPUTER;            
+                    if (shotResult.isHit()) {
+                        showExplosion(destBoardUI);
+                        displayLastHitInfo(destBoardUI, shotResult);
                     }
-                    changeState(GameStages.PLAY);
-
+                }
+                
+                /* A whole fleet has been destroyed */
+                if ("gameEngineOver".equals(property)) {
+                    runEndGame(propertyChangeEvent.getNewValue() == Turn.PLAYER);
                 }
             }
         };
     }
     /*=========================================================================*/
+    /**
+     * Makes this class an observer of the game engine
+     * @see MainFrame()
+     */
+    private void initGameEngine() {
+        this.gameEngine.addPropertyChangeListener(this.propertyChangeListener);
+    }
+    /*=========================================================================*/
     /**
      * Initializes player's board
      * @see MainFrame()
@@ -512,6 +537,11 @@ public class MainFrameController implements Initializable {
      * @param playerWins - true if the player has won the game, false otherwise
      */
     private void runEndGame(Boolean playerWins) {        
+        if (this.gameStage == GameStages.END_GAME) {
+            return;
+        }
+        setGameStage(GameStages.END_GAME);
+        this.computerTurnScheduler.shutdown();
         this.endGameController.construct(playerWins);
         initEndGame();   
         
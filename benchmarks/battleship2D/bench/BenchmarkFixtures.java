@@ -0,0 +1,173 @@
+package battleship2D.bench;
+
+import battleship2D.ai.ComputerPlayer;
+import battleship2D.model.AbstractBoardModel;
+import battleship2D.model.BitBoardModel;
+import battleship2D.model.BoardModel;
+import battleship2D.model.CellModel;
+import battleship2D.model.CellType;
+import battleship2D.model.FleetPlacer;
+import battleship2D.model.OffHeapBoardModel;
+import battleship2D.model.Ship;
+import battleship2D.model.SparseBoardModel;
+import battleship2D.model.SkillLevel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Builds the boards and computer players measured by the benchmarks.
+ * Every fixture is seeded, so that two runs measure the same positions.
+ */
+public final class BenchmarkFixtures {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Seed of every random choice made while building a fixture */
+    public static final long SEED = 20160501L;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Creates a player board whose fleet is placed at random, the same way on every run
+     * @param size - number of rows and columns
+     * @return the filled board
+     */
+    public static BoardModel newPlayerBoard(int size) {
+        BoardModel boardModel = new BoardModel(CellType.OCEAN, size, size);
+        new FleetPlacer(size, size, new Random(SEED)).placeFleet(boardModel);
+        return boardModel;
+    }
+
+    /**
+     * Creates a headless board holding the same fleet as newPlayerBoard()
+     * @param boardKind - implementation of the board, other than CELL_MODEL
+     * @param size - number of rows and columns
+     * @return the filled board
+     */
+    public static AbstractBoardModel newHeadlessBoard(BoardKind boardKind, int size) {
+        AbstractBoardModel boardModel = newEmptyBoard(boardKind, size);
+        BoardModel playerBoardModel = newPlayerBoard(size);
+        for (Ship ship : playerBoardModel.getFleet().getShips()) {
+            CellType cellType = CellType.shipTypeToCellType(ship.getShipType());
+            for (int cellId : ship.getCellIds()) {
+                boardModel.setCellType(cellId, cellType);
+            }
+            boardModel.getFleet().placeShip(boardModel.getFleet().findShipFromType(ship.getShipType()),
+                                            ship.getCellIds());
+        }
+        return boardModel;
+    }
+
+    /**
+     * Creates a headless board made of ocean cells
+     * @param boardKind - implementation of the board, other than CELL_MODEL
+     * @param size - number of rows and columns
+     * @return the new board
+     */
+    public static AbstractBoardModel newEmptyBoard(BoardKind boardKind, int size) {
+        switch (boardKind) {
+            case BIT_BOARD:
+                return new BitBoardModel(CellType.OCEAN, size, size);
+
+            case OFF_HEAP:
+                return new OffHeapBoardModel(CellType.OCEAN, size, size);
+
+            case SPARSE:
+                return new SparseBoardModel(CellType.OCEAN, size, size);
+
+            default:
+                throw new IllegalArgumentException("BenchmarkFixtures::newEmptyBoard: no headless board for " + boardKind);
+        }
+    }
+
+    /**
+     * Creates a computer player which has already fired the missiles of a game phase
+     * at a random player board, as the game engine would have let it do
+     * @param skillLevel - skill level of the computer
+     * @param gamePhase - game phase to reproduce
+     * @param size - number of rows and columns of the player board
+     * @return the computer player, ready to choose its next target
+     */
+    public static ComputerPlayer newComputerPlayer(SkillLevel skillLevel, GamePhase gamePhase, int size) {
+        BoardModel playerBoardModel = newPlayerBoard(size);
+        ComputerPlayer computerPlayer = new ComputerPlayer(skillLevel, playerBoardModel.getFleet(), size, size);
+        computerPlayer.setMonteCarloSamples(10000);
+
+        /* The strategies are measured, not a lookup in the opening book */
+        computerPlayer.setOpeningBook(null);
+
+        /* Exact counting is only bounded by its budget: an open board holds too many fleets */
+        if (skillLevel != SkillLevel.EXACT) {
+            computerPlayer.setMoveBudget(0);
+        }
+        Random random = new Random(SEED);
+
+        /* Missiles fallen into the ocean, in random order */
+        ArrayList<CellModel> oceanCells = cellsOfType(playerBoardModel, CellType.OCEAN);
+        Collections.shuffle(oceanCells, random);
+        int misses = (int) (gamePhase.getMissRatio() * oceanCells.size());
+        for (int i = 0; i < misses; i++) {
+            recordShot(computerPlayer, playerBoardModel, oceanCells.get(i));
+        }
+
+        /* Destroyed ships, then the first cell of a wounded ship */
+        ArrayList<Ship> ships = playerBoardModel.getFleet().getShips();
+        for (int i = 0; i < gamePhase.getDestroyedShips(); i++) {
+            CellType shipCellType = CellType.shipTypeToCellType(ships.get(i).getShipType());
+            for (CellModel cellModel : cellsOfType(playerBoardModel, shipCellType)) {
+                recordShot(computerPlayer, playerBoardModel, cellModel);
+            }
+            computerPlayer.updateInfoAboutAdverseDestroyedShip(ships.get(i).getDescription());
+        }
+        if (gamePhase.hasWoundedShip()) {
+            CellType shipCellType = CellType.shipTypeToCellType(ships.get(gamePhase.getDestroyedShips()).getShipType());
+            recordShot(computerPlayer, playerBoardModel, playerBoardModel.findFirstCellOfType(shipCellType));
+        }
+        return computerPlayer;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Constructor: static methods only
+     */
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @return every cell of a given type
+     * @param boardModel - board to search
+     * @param cellType - type to search for
+     */
+    private static ArrayList<CellModel> cellsOfType(BoardModel boardModel, CellType cellType) {
+        ArrayList<CellModel> cellModels = new ArrayList<>();
+        for (int row = 0; row < boardModel.getRows(); row++) {
+            for (int column = 0; column < boardModel.getColumns(); column++) {
+                if (boardModel.getCellModel(row, column).getCellType() == cellType) {
+                    cellModels.add(boardModel.getCellModel(row, column));
+                }
+            }
+        }
+        return cellModels;
+    }
+
+    /**
+     * Lets the computer player know the type of a player cell
+     * @param computerPlayer - computer player to inform
+     * @param playerBoardModel - player board
+     * @param cellModel - targeted cell of the player board
+     */
+    private static void recordShot(ComputerPlayer computerPlayer, BoardModel playerBoardModel, CellModel cellModel) {
+        int row = playerBoardModel.cellCoords(cellModel).getRow();
+        int column = playerBoardModel.cellCoords(cellModel).getColumn();
+        computerPlayer.recordShot(row, column, cellModel.getCellType());
+    }
+}
@@ -0,0 +1,33 @@
+package battleship2D.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this package with the GC profiler, which reports the
+ * allocation rate (gc.alloc.rate.norm: bytes per operation) next to the throughput.
+ * An optional argument restricts the run to the benchmarks matching a regular expression,
+ * e.g. "StrategyBenchmark" or "BoardModelBenchmark.randomCell".
+ * The same report is obtained from the JMH uber-jar with: java -jar benchmarks.jar -prof gc
+ */
+public class BenchmarkRunner {
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * @param args - optional regular expression selecting the benchmarks to run
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = (args.length > 0) ? args[0] : BenchmarkRunner.class.getPackage().getName();
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
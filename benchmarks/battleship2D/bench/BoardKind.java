@@ -0,0 +1,15 @@
+package battleship2D.bench;
+
+/**
+ * Board implementation measured by the board benchmarks
+ */
+public enum BoardKind {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    CELL_MODEL, /* BoardModel: one CellModel per cell, as used by the game */
+    BIT_BOARD, /* BitBoardModel: one bitset per cell type */
+    OFF_HEAP, /* OffHeapBoardModel: one byte per cell, outside of the Java heap */
+    SPARSE /* SparseBoardModel: only the cells other than ocean */
+}
@@ -0,0 +1,214 @@
+package battleship2D.bench;
+
+import battleship2D.model.AbstractBoardModel;
+import battleship2D.model.BoardModel;
+import battleship2D.model.CellModel;
+import battleship2D.model.CellType;
+import battleship2D.model.Coord2D;
+import battleship2D.model.Direction;
+import battleship2D.model.Fleet;
+import battleship2D.model.Ship;
+import battleship2D.model.ShipType;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Queries and bulk updates of a board holding a whole fleet, for each board implementation:
+ * BoardModel, as used by the game, and the headless boards identifying cells with integers.
+ * With the GC profiler (-prof gc, or BenchmarkRunner), gc.alloc.rate.norm of newBoard() gives
+ * the heap taken by a board, i.e. what the garbage collector has to mark while the board is alive
+ * (the storage of OFF_HEAP is not counted: it is outside of the heap).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardModelBenchmark {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Number of cells visited in turn by the single-cell benchmarks */
+    private static final int SAMPLED_CELLS = 1024;
+
+    /** Number of rows and columns of the board */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    /** Board implementation */
+    @Param({"CELL_MODEL", "BIT_BOARD", "OFF_HEAP", "SPARSE"})
+    public BoardKind boardKind;
+
+    /** Measured board, for CELL_MODEL only */
+    private BoardModel boardModel;
+
+    /** Measured board, for the other kinds only */
+    private AbstractBoardModel headlessBoard;
+
+    /** Cells visited in turn, chosen at random, and their identifiers */
+    private CellModel[] sampledCells;
+    private int[] sampledCellIds;
+    private int nextCell;
+
+    /** Type and cells of every ship of the fleet */
+    private ShipType[] shipTypes;
+    private int[][] shipCellIds;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (this.boardKind == BoardKind.CELL_MODEL) {
+            this.boardModel = BenchmarkFixtures.newPlayerBoard(this.size);
+        }
+        else {
+            this.headlessBoard = BenchmarkFixtures.newHeadlessBoard(this.boardKind, this.size);
+        }
+
+        Random random = new Random(BenchmarkFixtures.SEED);
+        this.sampledCells = new CellModel[SAMPLED_CELLS];
+        this.sampledCellIds = new int[SAMPLED_CELLS];
+        for (int i = 0; i < SAMPLED_CELLS; i++) {
+            int row = random.nextInt(this.size);
+            int column = random.nextInt(this.size);
+            this.sampledCellIds[i] = row * this.size + column;
+            if (this.boardModel != null) {
+                this.sampledCells[i] = this.boardModel.getCellModel(row, column);
+            }
+        }
+        this.nextCell = 0;
+
+        Fleet fleet = (this.boardModel != null) ? this.boardModel.getFleet() : this.headlessBoard.getFleet();
+        this.shipTypes = new ShipType[fleet.numberOfShips()];
+        this.shipCellIds = new int[fleet.numberOfShips()][];
+        for (int ship = 0; ship < fleet.numberOfShips(); ship++) {
+            this.shipTypes[ship] = fleet.getShips().get(ship).getShipType();
+            this.shipCellIds[ship] = fleet.getShips().get(ship).getCellIds();
+        }
+    }
+
+    @Benchmark
+    public void adjacentCell(Blackhole blackhole) {
+        int i = nextCell();
+        for (Direction direction : Direction.values()) {
+            if (this.boardModel != null) {
+                blackhole.consume(this.boardModel.adjacentCell(this.sampledCells[i], direction));
+            }
+            else {
+                blackhole.consume(this.headlessBoard.adjacentCell(this.sampledCellIds[i], direction));
+            }
+        }
+    }
+
+    @Benchmark
+    public Coord2D cellCoords() {
+        int i = nextCell();
+        if (this.boardModel != null) {
+            return this.boardModel.cellCoords(this.sampledCells[i]);
+        }
+        return this.headlessBoard.cellCoords(this.sampledCellIds[i]);
+    }
+
+    @Benchmark
+    public void randomCellOfType(Blackhole blackhole) {
+        if (this.boardModel != null) {
+            blackhole.consume(this.boardModel.randomCell(CellType.OCEAN, true));
+        }
+        else {
+            blackhole.consume(this.headlessBoard.randomCell(CellType.OCEAN, true));
+        }
+    }
+
+    @Benchmark
+    public void randomCellNotOfType(Blackhole blackhole) {
+        if (this.boardModel != null) {
+            blackhole.consume(this.boardModel.randomCell(CellType.OCEAN, false));
+        }
+        else {
+            blackhole.consume(this.headlessBoard.randomCell(CellType.OCEAN, false));
+        }
+    }
+
+    /**
+     * Creates a board of the measured kind and places the fleet on it
+     * @return the new board
+     */
+    @Benchmark
+    public Object newBoard() {
+        if (this.boardModel != null) {
+            BoardModel boardModel = new BoardModel(CellType.OCEAN, this.size, this.size);
+            for (int ship = 0; ship < this.shipTypes.length; ship++) {
+                for (int cellId : this.shipCellIds[ship]) {
+                    boardModel.getCellModel(cellId).setCellType(CellType.shipTypeToCellType(this.shipTypes[ship]));
+                }
+                placeShip(boardModel.getFleet(), ship);
+            }
+            return boardModel;
+        }
+        AbstractBoardModel boardModel = BenchmarkFixtures.newEmptyBoard(this.boardKind, this.size);
+        for (int ship = 0; ship < this.shipTypes.length; ship++) {
+            for (int cellId : this.shipCellIds[ship]) {
+                boardModel.setCellType(cellId, CellType.shipTypeToCellType(this.shipTypes[ship]));
+            }
+            placeShip(boardModel.getFleet(), ship);
+        }
+        return boardModel;
+    }
+
+    /**
+     * Replaces every ocean cell and then restores them, so that each invocation sees the same board
+     */
+    @Benchmark
+    public void replaceAll() {
+        if (this.boardModel != null) {
+            this.boardModel.replaceAll(CellType.OCEAN, CellType.AVAILABLE_LOCATION);
+            this.boardModel.replaceAll(CellType.AVAILABLE_LOCATION, CellType.OCEAN);
+        }
+        else {
+            this.headlessBoard.replaceAll(CellType.OCEAN, CellType.AVAILABLE_LOCATION);
+            this.headlessBoard.replaceAll(CellType.AVAILABLE_LOCATION, CellType.OCEAN);
+        }
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * Places a ship of the measured fleet in another fleet
+     * @param fleet - fleet to deal with
+     * @param ship - index of the ship
+     */
+    private void placeShip(Fleet fleet, int ship) {
+        Ship placedShip = fleet.findShipFromType(this.shipTypes[ship]);
+        fleet.placeShip(placedShip, this.shipCellIds[ship]);
+    }
+
+    /**
+     * @return the index of the next sampled cell
+     */
+    private int nextCell() {
+        int i = this.nextCell;
+        this.nextCell = (this.nextCell + 1) & (SAMPLED_CELLS - 1);
+        return i;
+    }
+}
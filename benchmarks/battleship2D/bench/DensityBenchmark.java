@@ -0,0 +1,79 @@
+package battleship2D.bench;
+
+import battleship2D.ai.DensityAccumulator;
+import battleship2D.ai.ScalarDensityAccumulator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Accumulation of the horizontal and vertical placements of a ship of size 5, scalar
+ * against the implementation selected at startup: vectorized when the vector/ source
+ * root has been compiled in, since the fork enables the jdk.incubator.vector module.
+ * Half of the cells are legal starts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class DensityBenchmark {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Size of the accumulated ship */
+    private static final int SHIP_SIZE = 5;
+
+    /** Number of rows and columns of the board */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    /** Accumulation measured */
+    @Param({"SCALAR", "SELECTED"})
+    public String accumulation;
+
+    /** Legal start array */
+    private int[] starts;
+
+    /** Count array */
+    private int[] counts;
+
+    /** Accumulator measured */
+    private DensityAccumulator accumulator;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(0);
+        this.starts = new int[this.size * this.size];
+        for (int i = 0; i < this.starts.length; i++) {
+            this.starts[i] = random.nextInt(2);
+        }
+        this.counts = new int[this.starts.length];
+        this.accumulator = "SCALAR".equals(this.accumulation) ? new ScalarDensityAccumulator() : DensityAccumulator.select();
+    }
+
+    @Benchmark
+    public int[] accumulate() {
+        this.accumulator.accumulate(this.starts, 1, SHIP_SIZE, this.counts);
+        this.accumulator.accumulate(this.starts, this.size, SHIP_SIZE, this.counts);
+        return this.counts;
+    }
+}
@@ -0,0 +1,82 @@
+package battleship2D.bench;
+
+import battleship2D.model.Fleet;
+import battleship2D.model.Ship;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hit counting of Fleet.
+ * Fleet.updateHits() cannot be undone, so each invocation hits every part of a new fleet:
+ * the newFleet() and newPlacedFleet() benchmarks measure the construction alone, to be subtracted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetBenchmark {
+
+    @Benchmark
+    public Fleet newFleet() {
+        return new Fleet();
+    }
+
+    @Benchmark
+    public Fleet newPlacedFleet() {
+        return placedFleet();
+    }
+
+    @Benchmark
+    public Fleet updateHitsByCellUntilFleetDestroyed() {
+        Fleet fleet = placedFleet();
+        for (Ship ship : fleet.getShips()) {
+            for (int cellId : ship.getCellIds()) {
+                fleet.updateHits(cellId);
+            }
+        }
+        return fleet;
+    }
+
+    @Benchmark
+    public Fleet updateHitsUntilFleetDestroyed() {
+        Fleet fleet = new Fleet();
+        for (Ship ship : fleet.getShips()) {
+            for (int part = 0; part < ship.getSize(); part++) {
+                fleet.updateHits(ship.getShipType());
+            }
+        }
+        return fleet;
+    }
+
+
+    /*=========================================================================*/
+    /* Private methods                                                         */
+    /*=========================================================================*/
+
+    /**
+     * @return a new fleet whose ships lie on consecutive rows of a 10 x 10 board
+     */
+    private Fleet placedFleet() {
+        Fleet fleet = new Fleet();
+        int row = 0;
+        for (Ship ship : fleet.getShips()) {
+            int[] cellIds = new int[ship.getSize()];
+            for (int part = 0; part < cellIds.length; part++) {
+                cellIds[part] = row * 10 + part;
+            }
+            fleet.placeShip(ship, cellIds);
+            row++;
+        }
+        return fleet;
+    }
+}
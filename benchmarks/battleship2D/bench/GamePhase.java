@@ -0,0 +1,56 @@
+package battleship2D.bench;
+
+/**
+ * Stage of a game reproduced before measuring the computer decisions
+ */
+public enum GamePhase {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    OPENING(0.0, 0, false), /* No missile has been fired yet */
+    MIDGAME(0.25, 2, true), /* A quarter of the ocean is known, two ships are destroyed and another one is hit */
+    ENDGAME(0.6, 4, false); /* Most of the ocean is known and a single ship remains to be found */
+
+    /** Fraction of the ocean cells already targeted */
+    private final double missRatio;
+
+    /** Number of ships already destroyed, taken in fleet order */
+    private final int destroyedShips;
+
+    /** True if the next ship of the fleet has been hit once */
+    private final boolean woundedShip;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    /**
+     * Constructor
+     * @param missRatio - fraction of the ocean cells already targeted
+     * @param destroyedShips - number of ships already destroyed
+     * @param woundedShip - true if the next ship of the fleet has been hit once
+     */
+    GamePhase(double missRatio, int destroyedShips, boolean woundedShip) {
+        this.missRatio = missRatio;
+        this.destroyedShips = destroyedShips;
+        this.woundedShip = woundedShip;
+    }
+
+    /*
+     * Getters / Setters
+     */
+
+    public int getDestroyedShips() {
+        return this.destroyedShips;
+    }
+
+    public double getMissRatio() {
+        return this.missRatio;
+    }
+
+    public boolean hasWoundedShip() {
+        return this.woundedShip;
+    }
+}
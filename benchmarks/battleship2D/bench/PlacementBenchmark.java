@@ -0,0 +1,67 @@
+package battleship2D.bench;
+
+import battleship2D.ai.ComputerPlayer;
+import battleship2D.model.BoardModel;
+import battleship2D.model.CellType;
+import battleship2D.model.SkillLevel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Random placement of a whole fleet on an empty board.
+ * The board is emptied before each invocation, outside of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Number of rows and columns of the board */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    /** Board to fill */
+    private BoardModel boardModel;
+
+    /** Player placing the fleet */
+    private ComputerPlayer computerPlayer;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.boardModel = new BoardModel(CellType.OCEAN, this.size, this.size);
+        this.computerPlayer = new ComputerPlayer(SkillLevel.BEGINNER, this.boardModel.getFleet(), this.size, this.size);
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyBoard() {
+        this.boardModel.reset(CellType.OCEAN);
+    }
+
+    @Benchmark
+    public BoardModel placeShipsOnBoardAtRandom() {
+        this.computerPlayer.placeShipsOnBoardAtRandom(this.boardModel);
+        return this.boardModel;
+    }
+}
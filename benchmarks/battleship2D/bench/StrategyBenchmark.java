@@ -0,0 +1,77 @@
+package battleship2D.bench;
+
+import battleship2D.ai.ComputerPlayer;
+import battleship2D.model.Coord2D;
+import battleship2D.model.SkillLevel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Choice of the next missile target, for each skill level and game phase.
+ * The chosen cell is not fired at, and every invocation decides on a fresh copy of the
+ * position: a decision alters the player (e.g. the EXPERT level consumes its future targets
+ * and takes the chosen cell for its last hit). The copy is made out of the measurement.
+ * The endgame positions solved by a decision are forgotten before the next one,
+ * which would otherwise only read them back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Number of rows and columns of the board */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    /** Skill level of the computer */
+    @Param({"BEGINNER", "MEDIUM", "EXPERT", "PROBABILITY", "MONTE_CARLO", "EXACT"})
+    public SkillLevel skillLevel;
+
+    /** Game phase to reproduce */
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    public GamePhase gamePhase;
+
+    /** Computer player in the measured position */
+    private ComputerPlayer position;
+
+    /** Copy of the position making the measured decision */
+    private ComputerPlayer computerPlayer;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.position = BenchmarkFixtures.newComputerPlayer(this.skillLevel, this.gamePhase, this.size);
+    }
+
+    @Setup(Level.Invocation)
+    public void copyPosition() {
+        this.computerPlayer = this.position.copy();
+        this.computerPlayer.forgetSolvedEndgames();
+    }
+
+    @Benchmark
+    public Coord2D findMissileDestinationCell() {
+        return this.computerPlayer.findMissileDestinationCell();
+    }
+}
@@ -0,0 +1,43 @@
+package battleship2D.ai;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Density accumulation with the Vector API: the count array is updated as rows of
+ * int lanes, as wide as the preferred vector of the hardware, the tail of each shifted
+ * copy being added one cell at a time. Requires the jdk.incubator.vector module
+ * (javac and java --add-modules jdk.incubator.vector): this source root is only
+ * compiled when the module is enabled, the game falls back to the scalar loop otherwise.
+ * @see DensityAccumulator
+ */
+public class VectorDensityAccumulator implements DensityAccumulator {
+    /*=========================================================================*/
+    /* Members                                                                 */
+    /*=========================================================================*/
+
+    /** Lanes of the preferred vector shape */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+
+    /*=========================================================================*/
+    /* Public methods                                                          */
+    /*=========================================================================*/
+
+    @Override
+    public void accumulate(int[] starts, int stride, int size, int[] counts) {
+        int lanes = SPECIES.length();
+        for (int k = 0; k < size; k++) {
+            int shift = k * stride;
+            int i = shift;
+            for (int upper = shift + SPECIES.loopBound(counts.length - shift); i < upper; i += lanes) {
+                IntVector.fromArray(SPECIES, counts, i)
+                         .add(IntVector.fromArray(SPECIES, starts, i - shift))
+                         .intoArray(counts, i);
+            }
+            for (; i < counts.length; i++) {
+                counts[i] += starts[i - shift];
+            }
+        }
+    }
+}